@@ -0,0 +1,189 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop load generator for comparing request execution modes. Registers a user, seeds
+ * asks, then keeps {@code --concurrency} clients busy on a mix of authenticated read endpoints
+ * for a warmup and a measured period, and prints throughput and latency percentiles.
+ * <p>
+ * Run with {@code java LoadTest.java --label platform --concurrency 400 --json out.json}.
+ * In paths, {@code {ask}} is replaced by a random seeded ask id.
+ */
+public class LoadTest {
+
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        String label = options.getOrDefault("label", "run");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "400"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup-seconds", "15")));
+        Duration measured = Duration.ofSeconds(Long.parseLong(options.getOrDefault("seconds", "60")));
+        int seed = Integer.parseInt(options.getOrDefault("seed-asks", "500"));
+        List<String> paths = List.of(options.getOrDefault("paths",
+                "/ask/id/{ask},/ask/all?size=20,/feed/hydrated?size=20,/user").split(","));
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        String token = login(client, baseUrl);
+        List<Long> askIds = seedAsks(client, baseUrl, token, seed);
+
+        System.out.printf("%s: %d clients, %ds warmup, %ds measured, paths %s%n",
+                label, concurrency, warmup.toSeconds(), measured.toSeconds(), paths);
+        run(client, baseUrl, token, askIds, paths, concurrency, warmup);
+        Result result = run(client, baseUrl, token, askIds, paths, concurrency, measured);
+
+        String summary = String.format(Locale.ROOT,
+                "{\"label\":\"%s\",\"concurrency\":%d,\"seconds\":%d,\"requests\":%d,\"errors\":%d," +
+                        "\"throughputPerSecond\":%.1f,\"p50Ms\":%.2f,\"p90Ms\":%.2f,\"p99Ms\":%.2f,\"p999Ms\":%.2f,\"maxMs\":%.2f}",
+                label, concurrency, measured.toSeconds(), result.latencies.length, result.errors,
+                result.latencies.length / (double) measured.toSeconds(),
+                result.percentile(0.50), result.percentile(0.90), result.percentile(0.99),
+                result.percentile(0.999), result.percentile(1.0));
+        System.out.println(summary);
+        if (options.containsKey("json")) {
+            Files.writeString(Path.of(options.get("json")), summary + System.lineSeparator());
+        }
+    }
+
+    private static Result run(HttpClient client, String baseUrl, String token, List<Long> askIds,
+                              List<String> paths, int concurrency, Duration duration) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long[][] perClient = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        int[] errors = new int[concurrency];
+
+        for (int c = 0; c < concurrency; c++) {
+            int index = c;
+            Thread thread = new Thread(() -> {
+                long[] latencies = new long[1024];
+                int count = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    while (running.get()) {
+                        String path = paths.get(random.nextInt(paths.size()));
+                        if (!askIds.isEmpty()) {
+                            path = path.replace("{ask}", String.valueOf(askIds.get(random.nextInt(askIds.size()))));
+                        }
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                                .header("Authorization", "Bearer " + token)
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors[index]++;
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors[index]++;
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                } finally {
+                    perClient[index] = latencies;
+                    counts[index] = count;
+                    done.countDown();
+                }
+            }, "load-" + c);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        Thread.sleep(duration.toMillis());
+        running.set(false);
+        done.await();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < concurrency; c++) {
+            System.arraycopy(perClient[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        return new Result(all, Arrays.stream(errors).sum());
+    }
+
+    private static String login(HttpClient client, String baseUrl) throws Exception {
+        String name = "bench" + Long.toHexString(System.nanoTime());
+        String user = "{\"firstName\":\"Bench\",\"email\":\"" + name + "@example.com\",\"userName\":\"" + name +
+                "\",\"password\":\"bench-password\",\"preferredCategories\":[\"TECHNOLOGY\"]}";
+        send(client, post(baseUrl + "/public/register", null, user), 201);
+        return send(client, post(baseUrl + "/public/login", null,
+                "{\"userName\":\"" + name + "\",\"password\":\"bench-password\"}"), 200).trim();
+    }
+
+    private static List<Long> seedAsks(HttpClient client, String baseUrl, String token, int count) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String body = "{\"question\":\"Benchmark question " + i + " about #bench topic " + (i % 37) +
+                    "\",\"category\":\"TECHNOLOGY\"}";
+            Matcher matcher = ID.matcher(send(client, post(baseUrl + "/ask", token, body), 201));
+            if (matcher.find()) {
+                ids.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+        return ids;
+    }
+
+    private static HttpRequest post(String url, String token, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static String send(HttpClient client, HttpRequest request, int expected) throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != expected) {
+            throw new IllegalStateException(request.uri() + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected an option, got " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private record Result(long[] latencies, int errors) {
+
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(p * latencies.length) - 1);
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
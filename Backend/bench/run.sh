@@ -0,0 +1,42 @@
+#!/usr/bin/env bash
+# Runs the same load against the backend in platform-thread and in virtual-thread mode and
+# writes target/bench/{platform,virtual}.json plus the server logs. Needs Java 21 or later and
+# the database settings of a normal run; extra arguments are passed to the application.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+CONCURRENCY=${CONCURRENCY:-400}
+DURATION=${DURATION:-60}
+WARMUP=${WARMUP:-15}
+PORT=${PORT:-8080}
+OUT=target/bench
+
+if ! java -version 2>&1 | grep -qE 'version "(2[1-9]|[3-9][0-9])'; then
+  echo "Virtual threads need Java 21 or later" >&2
+  exit 1
+fi
+
+./mvnw -B -q -DskipTests package
+JAR=$(ls target/*.jar | grep -v '\.original$' | head -1)
+mkdir -p "$OUT"
+
+for mode in platform virtual; do
+  virtual=false
+  [ "$mode" = virtual ] && virtual=true
+  # Prints the stack of every virtual thread that blocks while pinned to its carrier.
+  java -Djdk.tracePinnedThreads=short -jar "$JAR" --server.port="$PORT" \
+      --spring.threads.virtual.enabled="$virtual" "$@" > "$OUT/$mode.log" 2>&1 &
+  pid=$!
+  trap 'kill $pid 2>/dev/null || true' EXIT
+  until curl -sf "http://localhost:$PORT/public/health-check" > /dev/null; do
+    kill -0 "$pid" 2>/dev/null || { tail -50 "$OUT/$mode.log"; exit 1; }
+    sleep 1
+  done
+  java bench/LoadTest.java --base-url "http://localhost:$PORT" --label "$mode" \
+      --concurrency "$CONCURRENCY" --seconds "$DURATION" --warmup-seconds "$WARMUP" --json "$OUT/$mode.json"
+  kill "$pid"
+  wait "$pid" || true
+done
+
+echo "Frames holding a monitor while a virtual thread was pinned:"
+grep -h '<== monitors' "$OUT/virtual.log" | sed 's/^ *//' | sort | uniq -c | sort -rn | head -20 || echo "  none"
@@ -0,0 +1,56 @@
+package com.ak.Rexsphere.benchmark;
+
+import com.ak.Rexsphere.entity.User;
+import com.ak.Rexsphere.enums.Category;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Category parsing, which runs for every category in a request body or path, and the
+ * preferred-category round trip through the user's bitmask column.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryBenchmark {
+
+    private User user;
+    private List<Category> preferences;
+
+    @Setup
+    public void setUp() {
+        preferences = List.of(Category.TECHNOLOGY, Category.MUSIC, Category.TRAVEL, Category.SCIENCE, Category.OTHER);
+        user = new User();
+        user.setPreferredCategories(preferences);
+    }
+
+    @Benchmark
+    public Category fromString(Names names) {
+        return Category.fromString(names.name);
+    }
+
+    @Benchmark
+    public EnumSet<Category> getPreferredCategories() {
+        return user.getPreferredCategories();
+    }
+
+    @Benchmark
+    public User setPreferredCategories() {
+        user.setPreferredCategories(preferences);
+        return user;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Names {
+
+        // First constant, last constant and a lower-case name a client might send.
+        @Param({"TECHNOLOGY", "OTHER", "programming"})
+        public String name;
+    }
+}
@@ -0,0 +1,49 @@
+package com.ak.Rexsphere.benchmark;
+
+import com.ak.Rexsphere.service.JWTService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification as the JWT filter sees them: a repeat token is answered from the
+ * claims cache, a token not seen before is parsed and its HMAC checked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final String SECRET = "c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0c2VjcmV0";
+
+    private JWTService cached;
+    private JWTService uncached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cached = new JWTService(SECRET, 10_000, new SimpleMeterRegistry());
+        uncached = new JWTService(SECRET, 0, new SimpleMeterRegistry());
+        token = cached.generateToken("benchmark-user", 42L);
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken("benchmark-user", 42L);
+    }
+
+    @Benchmark
+    public JWTService.VerifiedToken verifyCached() {
+        return cached.verify(token);
+    }
+
+    @Benchmark
+    public JWTService.VerifiedToken verifyUncached() {
+        return uncached.verify(token);
+    }
+}
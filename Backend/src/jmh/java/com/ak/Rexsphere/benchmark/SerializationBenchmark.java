@@ -0,0 +1,96 @@
+package com.ak.Rexsphere.benchmark;
+
+import com.ak.Rexsphere.dto.AskResponse;
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.FeedResponse;
+import com.ak.Rexsphere.dto.RecResponse;
+import com.ak.Rexsphere.entity.Ask;
+import com.ak.Rexsphere.entity.Feed;
+import com.ak.Rexsphere.entity.Rec;
+import com.ak.Rexsphere.entity.User;
+import com.ak.Rexsphere.enums.Category;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of feed, ask and rec pages as the list endpoints return them, with an
+ * ObjectMapper configured the way Spring MVC configures its own.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private CursorPage<FeedResponse> feedPage;
+    private CursorPage<AskResponse> askPage;
+    private CursorPage<RecResponse> recPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<FeedResponse> feeds = new ArrayList<>();
+        List<AskResponse> asks = new ArrayList<>();
+        List<RecResponse> recs = new ArrayList<>();
+        Category[] categories = Category.values();
+        for (int i = 0; i < size; i++) {
+            User user = new User();
+            user.setId((long) i % 7);
+            user.setUserName("user" + i % 7);
+            user.setProfilePictureUrl("https://res.cloudinary.com/demo/image/upload/v1/profile/" + i % 7 + "_256.jpg");
+
+            Ask ask = new Ask();
+            ask.setId((long) i);
+            ask.setUser(user);
+            ask.setCategory(categories[i % categories.length]);
+            ask.setQuestion("Looking for a good book about distributed systems for a beginner, number " + i + "?");
+            ask.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0).plusMinutes(i));
+
+            Rec rec = new Rec();
+            rec.setId((long) i);
+            rec.setUser(user);
+            rec.setCategory(categories[i % categories.length]);
+            rec.setContent("Designing Data-Intensive Applications is a great start, recommendation " + i + ".");
+            rec.setCreatedAt(ask.getCreatedAt());
+
+            Feed feed = i % 2 == 0 ? new Feed(ask) : new Feed(rec);
+            feed.setId((long) i);
+            feed.setCreatedAt(ask.getCreatedAt());
+
+            feeds.add(FeedResponse.from(feed));
+            asks.add(AskResponse.from(ask));
+            recs.add(RecResponse.from(rec));
+        }
+        feedPage = new CursorPage<>(feeds, "MjAyNS0wMS0wMVQxMjowMDowMHwxMjM");
+        askPage = new CursorPage<>(asks, "MjAyNS0wMS0wMVQxMjowMDowMHwxMjM");
+        recPage = new CursorPage<>(recs, "MjAyNS0wMS0wMVQxMjowMDowMHwxMjM");
+    }
+
+    @Benchmark
+    public byte[] feedPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(feedPage);
+    }
+
+    @Benchmark
+    public byte[] askPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(askPage);
+    }
+
+    @Benchmark
+    public byte[] recPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(recPage);
+    }
+}
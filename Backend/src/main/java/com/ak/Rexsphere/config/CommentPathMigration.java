@@ -0,0 +1,43 @@
+package com.ak.Rexsphere.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives comments written before threading a top-level path (see CommentPath). Also drops
+ * idx_comment_ask_created_at_id and idx_comment_rec_created_at_id. Flat threads were paged
+ * oldest first on (post, created_at, id) through these indexes until threads came to be ordered
+ * by path, and databases that ran the flat version still have them. Schema updates never drop an
+ * index, and every comment insert would keep maintaining both. On a database that never had them
+ * the drops do nothing.
+ * Runs after Hibernate has added the column and before the web server accepts requests;
+ * afterwards no committed comment has a null path and the old indexes are gone, so this finds
+ * nothing to do.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class CommentPathMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentPathMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CommentPathMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        // Superseded by idx_comment_ask_path and idx_comment_rec_path.
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_comment_ask_created_at_id");
+        jdbcTemplate.execute("DROP INDEX IF EXISTS idx_comment_rec_created_at_id");
+        int converted = jdbcTemplate.update("UPDATE comment SET path = lpad(to_hex(id), 16, '0') WHERE path IS NULL");
+        if (converted > 0) {
+            log.info("Assigned thread paths to {} existing comments", converted);
+        }
+    }
+}
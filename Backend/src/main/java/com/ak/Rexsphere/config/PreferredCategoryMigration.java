@@ -0,0 +1,51 @@
+package com.ak.Rexsphere.config;
+
+import com.ak.Rexsphere.enums.Category;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * One-time conversion of the legacy comma-separated {@code users.preferred_categories} column
+ * into {@code preferred_category_mask}. Runs after Hibernate has added the new column and before
+ * the web server accepts requests; once the legacy column is dropped this is a no-op.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class PreferredCategoryMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(PreferredCategoryMigration.class);
+
+    // Unknown names are skipped; bit positions are the enum ordinals, see Category#bit.
+    private static final String CONVERT = "UPDATE users u SET preferred_category_mask = COALESCE(" +
+            "(SELECT bit_or(CAST(1 AS bigint) << (array_position(CAST(? AS text[]), trim(name)) - 1)) " +
+            "FROM unnest(string_to_array(u.preferred_categories, ',')) AS name " +
+            "WHERE array_position(CAST(? AS text[]), trim(name)) IS NOT NULL), 0) " +
+            "WHERE u.preferred_categories IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PreferredCategoryMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.columns WHERE table_schema = current_schema() " +
+                        "AND table_name = 'users' AND column_name = 'preferred_categories'", Integer.class);
+        if (legacyColumns == null || legacyColumns == 0) {
+            return;
+        }
+        String names = Arrays.stream(Category.values()).map(Enum::name).collect(Collectors.joining(",", "{", "}"));
+        int converted = jdbcTemplate.update(CONVERT, names, names);
+        jdbcTemplate.execute("ALTER TABLE users DROP COLUMN preferred_categories");
+        log.info("Converted preferred categories of {} users to bitmasks", converted);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ak.Rexsphere.config;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/** Thrown when a bounded pool has no capacity left; rendered as 503 with a Retry-After header. */
+public class SaturatedException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public SaturatedException(String reason, long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return headers;
+    }
+}
@@ -0,0 +1,43 @@
+package com.ak.Rexsphere.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports how requests are executed. With {@code spring.threads.virtual.enabled=true} on Java 21
+ * or later, Tomcat handles each request, and so every blocking JPA call beneath it, on its own
+ * virtual thread, and scheduled jobs run on virtual threads too. The Hikari pool then bounds
+ * concurrent database work instead of Tomcat's worker pool. The CPU-bound pools for password
+ * hashing and image processing stay on platform threads. On older runtimes the property is
+ * silently ignored by Spring Boot, hence the warning.
+ */
+@Component
+public class ThreadingMode {
+
+    private static final Logger log = LoggerFactory.getLogger(ThreadingMode.class);
+
+    private final Environment environment;
+
+    public ThreadingMode(Environment environment) {
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Handling requests on virtual threads");
+        } else if (requested) {
+            log.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads, " +
+                    "handling requests on platform threads", JavaVersion.getJavaVersion());
+        } else {
+            log.info("Handling requests on platform threads");
+        }
+    }
+}
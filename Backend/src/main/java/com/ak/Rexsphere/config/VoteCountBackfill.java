@@ -0,0 +1,50 @@
+package com.ak.Rexsphere.config;
+
+import com.ak.Rexsphere.service.VoteCounterService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills the {@code upvote_count}/{@code downvote_count} columns of posts that were voted on
+ * before the columns existed; Hibernate adds them as zero. Runs after Hibernate has added the
+ * columns and before the web server accepts requests, so feeds and the hot ranking never start
+ * from zeros. Once every voted post has a count this finds nothing to do.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class VoteCountBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteCountBackfill.class);
+
+    private static final String NEEDS_BACKFILL = "SELECT EXISTS (SELECT 1 FROM vote v JOIN rec r ON r.id = v.rec_id " +
+            "WHERE r.upvote_count = 0 AND r.downvote_count = 0) " +
+            "OR EXISTS (SELECT 1 FROM vote v JOIN ask a ON a.id = v.ask_id " +
+            "WHERE a.upvote_count = 0 AND a.downvote_count = 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    public VoteCountBackfill(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(NEEDS_BACKFILL, Boolean.class))) {
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String sql : VoteCounterService.RECONCILE_SQL.values()) {
+                jdbcTemplate.update(sql, 0L, Long.MAX_VALUE);
+            }
+        });
+        log.info("Backfilled vote counters from the vote table");
+    }
+}
@@ -0,0 +1,69 @@
+package com.ak.Rexsphere.config;
+
+import com.ak.Rexsphere.service.VoteCounterService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the one-vote-per-user-and-post constraints that the vote upserts rely on. Hibernate
+ * only logs a failed ADD CONSTRAINT, which it does when older data holds duplicate votes, so
+ * duplicates are removed here first, keeping each user's newest vote, and the constraint is added
+ * under the name Hibernate expects. Counters are recomputed if any vote was removed. Runs after
+ * Hibernate has updated the schema and before the web server accepts requests; once both
+ * constraints exist this is a no-op.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class VoteUniquenessMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteUniquenessMigration.class);
+
+    // Constraint name to the post column it pairs with user_id.
+    private static final Map<String, String> CONSTRAINTS = Map.of(
+            "uk_vote_user_rec", "rec_id",
+            "uk_vote_user_ask", "ask_id");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    public VoteUniquenessMigration(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        List<String> existing = jdbcTemplate.queryForList(
+                "SELECT conname FROM pg_constraint WHERE conrelid = CAST('vote' AS regclass) AND contype = 'u'",
+                String.class);
+        CONSTRAINTS.forEach((name, column) -> {
+            if (!existing.contains(name)) {
+                addConstraint(name, column);
+            }
+        });
+    }
+
+    private void addConstraint(String name, String column) {
+        int removed = new TransactionTemplate(transactionManager).execute(status -> {
+            int duplicates = jdbcTemplate.update("DELETE FROM vote v USING vote newer " +
+                    "WHERE newer.user_id = v.user_id AND newer." + column + " = v." + column + " " +
+                    "AND (newer.created_at, newer.id) > (v.created_at, v.id)");
+            jdbcTemplate.execute("ALTER TABLE vote ADD CONSTRAINT " + name + " UNIQUE (user_id, " + column + ")");
+            if (duplicates > 0) {
+                VoteCounterService.RECONCILE_SQL.values()
+                        .forEach(sql -> jdbcTemplate.update(sql, 0L, Long.MAX_VALUE));
+            }
+            return duplicates;
+        });
+        log.info("Removed {} duplicate votes and added constraint {}", removed, name);
+    }
+}
@@ -1,5 +1,8 @@
 package com.ak.Rexsphere.controller;
 
+import com.ak.Rexsphere.dto.AskResponse;
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.SimilarAsk;
 import com.ak.Rexsphere.entity.Ask;
 import com.ak.Rexsphere.service.AskService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,23 +20,39 @@ public class AskController {
     private AskService askService;
 
     @PostMapping
-    public ResponseEntity<Ask> createAsk(@RequestBody Ask ask) {
+    public ResponseEntity<AskResponse> createAsk(@RequestBody Ask ask) {
         return new ResponseEntity<>(askService.createAsk(ask), HttpStatus.CREATED);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<Ask>> getAllAsks(){
-        return new ResponseEntity<>(askService.getAllAsks(), HttpStatus.OK);
+    public ResponseEntity<CursorPage<AskResponse>> getAllAsks(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") int size){
+        return new ResponseEntity<>(askService.getAllAsks(cursor, size), HttpStatus.OK);
     }
 
     @GetMapping("/id/{id}")
-    public ResponseEntity<Ask> getAskById(@PathVariable Long id) {
+    public ResponseEntity<AskResponse> getAskById(@PathVariable Long id) {
         return new ResponseEntity<>(askService.getAskById(id), HttpStatus.OK);
     }
 
+    @GetMapping("/id/{id}/similar")
+    public ResponseEntity<List<SimilarAsk>> getSimilarAsks(@PathVariable Long id,
+                                                           @RequestParam(defaultValue = "5") int size) {
+        return new ResponseEntity<>(askService.getSimilarAsks(id, size), HttpStatus.OK);
+    }
+
+    @GetMapping("/similar")
+    public ResponseEntity<List<SimilarAsk>> findSimilarAsks(@RequestParam String question,
+                                                            @RequestParam String category,
+                                                            @RequestParam(defaultValue = "5") int size) {
+        return new ResponseEntity<>(askService.findSimilarAsks(question, category, size), HttpStatus.OK);
+    }
+
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Ask>> getAsksByCategory(@PathVariable String category) {
-        return new ResponseEntity<>(askService.getAsksByCategory(category), HttpStatus.OK);
+    public ResponseEntity<CursorPage<AskResponse>> getAsksByCategory(@PathVariable String category,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "20") int size) {
+        return new ResponseEntity<>(askService.getAsksByCategory(category, cursor, size), HttpStatus.OK);
     }
 
     @DeleteMapping("/id/{id}")
@@ -1,5 +1,8 @@
 package com.ak.Rexsphere.controller;
 
+import com.ak.Rexsphere.dto.CommentResponse;
+import com.ak.Rexsphere.dto.CommentThread;
+import com.ak.Rexsphere.dto.CursorPage;
 import com.ak.Rexsphere.entity.Comment;
 import com.ak.Rexsphere.service.CommentService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,27 +21,51 @@ public class CommentController {
     private CommentService commentService;
 
     @PostMapping
-    public ResponseEntity<Comment> addComment(@RequestBody Comment comment){
+    public ResponseEntity<CommentResponse> addComment(@RequestBody Comment comment){
         return ResponseEntity.ok(commentService.addComment(comment));
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<Comment>> getAllComments() {
-        return ResponseEntity.ok(commentService.getAllComments());
+    public ResponseEntity<CursorPage<CommentResponse>> getAllComments(@RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentService.getAllComments(cursor, size));
     }
 
     @GetMapping("/ask/{askId}")
-    public ResponseEntity<List<Comment>> getCommentsForAsk(@PathVariable Long askId) {
-        return ResponseEntity.ok(commentService.getCommentsForAsk(askId));
+    public ResponseEntity<CursorPage<CommentResponse>> getCommentsForAsk(@PathVariable Long askId,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentService.getCommentsForAsk(askId, cursor, size));
     }
 
     @GetMapping("/rec/{recId}")
-    public ResponseEntity<List<Comment>> getCommentsForRec(@PathVariable Long recId) {
-        return ResponseEntity.ok(commentService.getCommentsForRec(recId));
+    public ResponseEntity<CursorPage<CommentResponse>> getCommentsForRec(@PathVariable Long recId,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentService.getCommentsForRec(recId, cursor, size));
+    }
+
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<CursorPage<CommentResponse>> getReplies(@PathVariable Long id,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(commentService.getReplies(id, cursor, size));
+    }
+
+    @GetMapping("/ask/preview")
+    public ResponseEntity<List<CommentThread>> getAskThreadPreviews(@RequestParam List<Long> ids,
+                                                                    @RequestParam(defaultValue = "3") int size) {
+        return ResponseEntity.ok(commentService.getAskThreadPreviews(ids, size));
+    }
+
+    @GetMapping("/rec/preview")
+    public ResponseEntity<List<CommentThread>> getRecThreadPreviews(@RequestParam List<Long> ids,
+                                                                    @RequestParam(defaultValue = "3") int size) {
+        return ResponseEntity.ok(commentService.getRecThreadPreviews(ids, size));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Comment> updateComment(@PathVariable Long id, @RequestBody Comment updatedComment){
+    public ResponseEntity<CommentResponse> updateComment(@PathVariable Long id, @RequestBody Comment updatedComment){
         return ResponseEntity.ok(commentService.updateComment(id, updatedComment));
     }
 
@@ -1,9 +1,13 @@
 package com.ak.Rexsphere.controller;
 
-import com.ak.Rexsphere.entity.Feed;
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.FeedItem;
+import com.ak.Rexsphere.dto.FeedResponse;
 import com.ak.Rexsphere.service.FeedService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -15,12 +19,38 @@ public class FeedController {
     private FeedService feedService;
 
     @GetMapping
-    public List<Feed> getAllFeed(){
-        return feedService.getAllFeed();
+    public CursorPage<FeedResponse> getAllFeed(@RequestParam(required = false) String cursor,
+                                       @RequestParam(defaultValue = "20") int size){
+        return feedService.getAllFeed(cursor, size);
     }
 
     @GetMapping("/category/{category}")
-    public List<Feed> getByCategory(@PathVariable String category){
-        return feedService.getFeedByCategory(category);
+    public CursorPage<FeedResponse> getByCategory(@PathVariable String category,
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(defaultValue = "20") int size){
+        return feedService.getFeedByCategory(category, cursor, size);
+    }
+
+    @GetMapping("/for-me")
+    public CursorPage<FeedResponse> getFeedForMe(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int size){
+        return feedService.getFeedForMe(cursor, size);
+    }
+
+    @GetMapping("/hot")
+    public List<FeedResponse> getHotFeed(@RequestParam(defaultValue = "20") int size){
+        return feedService.getHotFeed(size);
+    }
+
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFeed(@RequestParam(required = false) String category){
+        return feedService.streamFeed(category);
+    }
+
+    @GetMapping("/hydrated")
+    public CursorPage<FeedItem> getHydratedFeed(@RequestParam(required = false) String category,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "20") int size){
+        return feedService.getHydratedFeed(category, cursor, size);
     }
 }
@@ -1,19 +1,36 @@
 package com.ak.Rexsphere.controller;
 
+import com.ak.Rexsphere.dto.AuthTokens;
+import com.ak.Rexsphere.dto.UserProfile;
 import com.ak.Rexsphere.entity.User;
+import com.ak.Rexsphere.service.RefreshTokenService;
 import com.ak.Rexsphere.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
 
 @RestController
 @RequestMapping("/public")
 public class PublicController {
 
+    private static final String REFRESH_COOKIE = "refresh_token";
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Value("${jwt.refresh.cookie-secure:true}")
+    private boolean secureCookie;
+
     @GetMapping("/health-check")
     public String healthCheck(){
         return "OK";
@@ -21,12 +38,53 @@ public class PublicController {
 
     @PostMapping("/register")
     public ResponseEntity<?> createUser(@RequestBody User user){
-        User newUser = userService.createUser(user);
+        UserProfile newUser = userService.createUser(user);
         return new ResponseEntity<>(newUser, HttpStatus.CREATED);
     }
 
     @PostMapping("/login")
-    public String login(@RequestBody User user) {
-        return userService.verify(user);
+    public ResponseEntity<String> login(@RequestBody User user) {
+        return withRefreshCookie(userService.verify(user));
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<String> refresh(@CookieValue(name = REFRESH_COOKIE, required = false) String refreshToken) {
+        if (refreshToken == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        try {
+            return withRefreshCookie(refreshTokenService.rotate(refreshToken));
+        } catch (ResponseStatusException e) {
+            return ResponseEntity.status(e.getStatusCode())
+                    .header(HttpHeaders.SET_COOKIE, refreshCookie("", Duration.ZERO).toString())
+                    .build();
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@CookieValue(name = REFRESH_COOKIE, required = false) String refreshToken) {
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE, refreshCookie("", Duration.ZERO).toString())
+                .build();
+    }
+
+    private ResponseEntity<String> withRefreshCookie(AuthTokens tokens) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, refreshCookie(tokens.getRefreshToken(), tokens.getRefreshTokenTtl()).toString())
+                .body(tokens.getAccessToken());
+    }
+
+    // HttpOnly keeps the long-lived token away from page scripts; it is only ever sent to /public.
+    private ResponseCookie refreshCookie(String value, Duration maxAge) {
+        return ResponseCookie.from(REFRESH_COOKIE, value)
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Strict")
+                .path("/public")
+                .maxAge(maxAge)
+                .build();
     }
 }
@@ -1,5 +1,7 @@
 package com.ak.Rexsphere.controller;
 
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.RecResponse;
 import com.ak.Rexsphere.entity.Rec;
 import com.ak.Rexsphere.service.RecService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,8 +9,6 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/rec")
 public class RecController {
@@ -17,24 +17,27 @@ public class RecController {
     private RecService recService;
 
     @PostMapping
-    public ResponseEntity<Rec> createRec(@RequestBody Rec rec) {
-        Rec savedRec = recService.createRec(rec);
+    public ResponseEntity<RecResponse> createRec(@RequestBody Rec rec) {
+        RecResponse savedRec = recService.createRec(rec);
         return new ResponseEntity<>(savedRec, HttpStatus.CREATED);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<Rec>> getAllRecs(){
-        return new ResponseEntity<>(recService.getAllRecs(), HttpStatus.OK);
+    public ResponseEntity<CursorPage<RecResponse>> getAllRecs(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") int size){
+        return new ResponseEntity<>(recService.getAllRecs(cursor, size), HttpStatus.OK);
     }
 
     @GetMapping("/id/{id}")
-    public ResponseEntity<Rec> getRecById(@PathVariable Long id) {
+    public ResponseEntity<RecResponse> getRecById(@PathVariable Long id) {
         return new ResponseEntity<>(recService.getRecById(id), HttpStatus.OK);
     }
 
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Rec>> getRecByCategory(@PathVariable String category){
-        return new ResponseEntity<>(recService.getRecsByCategory(category), HttpStatus.OK);
+    public ResponseEntity<CursorPage<RecResponse>> getRecByCategory(@PathVariable String category,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "20") int size){
+        return new ResponseEntity<>(recService.getRecsByCategory(category, cursor, size), HttpStatus.OK);
     }
 
     @DeleteMapping("/id/{id}")
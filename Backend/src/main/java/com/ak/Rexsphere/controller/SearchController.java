@@ -0,0 +1,28 @@
+package com.ak.Rexsphere.controller;
+
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.SearchHit;
+import com.ak.Rexsphere.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/search")
+public class SearchController {
+
+    @Autowired
+    private SearchService searchService;
+
+    @GetMapping
+    public ResponseEntity<CursorPage<SearchHit>> search(@RequestParam String q,
+                                                        @RequestParam(required = false) String type,
+                                                        @RequestParam(required = false) String category,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(searchService.search(q, type, category, cursor, size));
+    }
+}
@@ -0,0 +1,24 @@
+package com.ak.Rexsphere.controller;
+
+import com.ak.Rexsphere.dto.TrendingResponse;
+import com.ak.Rexsphere.service.TrendingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/trending")
+public class TrendingController {
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @GetMapping
+    public ResponseEntity<TrendingResponse> getTrending(@RequestParam(defaultValue = "hour") String window,
+                                                        @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(trendingService.getTrending(window, size));
+    }
+}
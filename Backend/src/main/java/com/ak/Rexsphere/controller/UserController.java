@@ -1,10 +1,12 @@
 package com.ak.Rexsphere.controller;
 
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.UserProfile;
+import com.ak.Rexsphere.dto.UserSummary;
 import com.ak.Rexsphere.entity.User;
 import com.ak.Rexsphere.enums.Category;
-import com.ak.Rexsphere.service.CloudinaryService;
+import com.ak.Rexsphere.service.ProfilePictureService;
 import com.ak.Rexsphere.service.UserService;
-import com.cloudinary.Cloudinary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,8 +16,12 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/user")
@@ -24,35 +30,46 @@ public class UserController {
     @Autowired
     private UserService userService;
 
-    private final CloudinaryService cloudinaryService;
-
-    public UserController(CloudinaryService cloudinaryService) {
-        this.cloudinaryService = cloudinaryService;
-    }
+    @Autowired
+    private ProfilePictureService profilePictureService;
 
     @GetMapping("/all")
-    public ResponseEntity<List<User>> getAllUsers(){
-        List<User> all = userService.getAllUsers();
+    public ResponseEntity<CursorPage<UserSummary>> getAllUsers(@RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") int size){
+        CursorPage<UserSummary> all = userService.getAllUsers(cursor, size);
         return ResponseEntity.ok(all);
     }
 
+    @GetMapping("/category/{category}")
+    public ResponseEntity<CursorPage<UserSummary>> getUsersByCategory(@PathVariable String category,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "20") int size){
+        return ResponseEntity.ok(userService.getUsersByCategory(category, cursor, size));
+    }
+
     @GetMapping
-    public ResponseEntity<User> getUserById(){
+    public ResponseEntity<UserProfile> getUserById(){
         Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
-        User user = userService.getUserById(userId);
+        UserProfile user = userService.getUserProfile(userId);
         return new ResponseEntity<>(user, HttpStatus.OK);
     }
 
     @GetMapping("/username/{userName}")
-    public ResponseEntity<User> getUserByUserName(@PathVariable String userName){
-        User user = userService.getUserByUserName(userName);
+    public ResponseEntity<UserSummary> getUserByUserName(@PathVariable String userName){
+        UserSummary user = userService.getUserByUserName(userName);
         return new ResponseEntity<>(user, HttpStatus.OK);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<UserSummary>> suggestUsers(@RequestParam String prefix,
+                                                          @RequestParam(defaultValue = "10") int size){
+        return ResponseEntity.ok(userService.suggestUsers(prefix, size));
+    }
+
     @PutMapping
-    public ResponseEntity<User> updateUser(@RequestBody User updatedUser) {
+    public ResponseEntity<UserProfile> updateUser(@RequestBody User updatedUser) {
         Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
-        User user = userService.updateUser(userId, updatedUser);
+        UserProfile user = userService.updateUser(userId, updatedUser);
         return new ResponseEntity<>(user, HttpStatus.ACCEPTED);
     }
 
@@ -76,28 +93,27 @@ public class UserController {
     }
 
     @PostMapping("/upload-profile-picture")
-    public ResponseEntity<String> uploadProfilePicture(@RequestParam("file") MultipartFile file) {
+    public CompletableFuture<ResponseEntity<String>> uploadProfilePicture(@RequestParam("file") MultipartFile file) {
         Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
-        User user = userService.getUserById(userId);
         try {
-            String oldImageUrl = user.getProfilePictureUrl();
-            String newImageUrl = cloudinaryService.uploadImage(file);
-
-            if (oldImageUrl != null && !oldImageUrl.isEmpty()){
-                cloudinaryService.deleteImage(oldImageUrl);
-            }
-            userService.updateProfilePictureUrl(user.getId(), newImageUrl);
-            return ResponseEntity.ok("Profile picture updated successfully: " + newImageUrl);
-
+            // The request thread is released while the image is resized and stored.
+            return profilePictureService.replace(userId, file)
+                    .thenApply(url -> ResponseEntity.ok("Profile picture updated successfully: " + url))
+                    .exceptionally(e -> {
+                        if (e.getCause() instanceof UncheckedIOException failure) {
+                            return ResponseEntity.status(500).body("Image upload failed: " + failure.getCause().getMessage());
+                        }
+                        throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+                    });
         } catch (IOException e) {
-            return ResponseEntity.status(500).body("Image upload failed: " + e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.status(500).body("Image upload failed: " + e.getMessage()));
         }
     }
 
     @GetMapping("preferences")
-    public ResponseEntity<List<Category>> getUserPreferences(){
+    public ResponseEntity<Set<Category>> getUserPreferences(){
         Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
-        List<Category> preferredCategories = userService.getPreferredCategories(userId);
+        Set<Category> preferredCategories = userService.getPreferredCategories(userId);
         return ResponseEntity.ok(preferredCategories);
     }
 }
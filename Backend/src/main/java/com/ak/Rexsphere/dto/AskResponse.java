@@ -0,0 +1,30 @@
+package com.ak.Rexsphere.dto;
+
+import com.ak.Rexsphere.entity.Ask;
+import com.ak.Rexsphere.enums.Category;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class AskResponse {
+
+    private final Long id;
+    private final Category category;
+    private final String question;
+    private final LocalDateTime createdAt;
+    private final UserSummary user;
+
+    /** Flat form used by JPQL constructor expressions, which cannot build the nested author. */
+    public AskResponse(Long id, Category category, String question, LocalDateTime createdAt,
+                       Long userId, String userName, String profilePictureUrl) {
+        this(id, category, question, createdAt, new UserSummary(userId, userName, profilePictureUrl));
+    }
+
+    public static AskResponse from(Ask ask) {
+        return new AskResponse(ask.getId(), ask.getCategory(), ask.getQuestion(), ask.getCreatedAt(),
+                UserSummary.from(ask.getUser()));
+    }
+}
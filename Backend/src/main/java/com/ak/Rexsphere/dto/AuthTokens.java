@@ -0,0 +1,15 @@
+package com.ak.Rexsphere.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+@AllArgsConstructor
+public class AuthTokens {
+
+    private final String accessToken;
+    private final String refreshToken;
+    private final Duration refreshTokenTtl;
+}
@@ -0,0 +1,44 @@
+package com.ak.Rexsphere.dto;
+
+import com.ak.Rexsphere.entity.Comment;
+import com.ak.Rexsphere.util.CommentPath;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class CommentResponse {
+
+    private final Long id;
+    private final String content;
+    private final Long askId;
+    private final Long recId;
+    private final Long parentId;
+    private final int replyCount;
+    private final LocalDateTime createdAt;
+    private final UserSummary user;
+
+    // Position in the thread; clients get it as depth and as the opaque cursor of thread pages.
+    @JsonIgnore
+    private final String path;
+
+    /** Flat form used by JPQL constructor expressions, which cannot build the nested author. */
+    public CommentResponse(Long id, String content, Long askId, Long recId, Long parentId, int replyCount,
+                           LocalDateTime createdAt, Long userId, String userName, String profilePictureUrl, String path) {
+        this(id, content, askId, recId, parentId, replyCount, createdAt,
+                new UserSummary(userId, userName, profilePictureUrl), path);
+    }
+
+    public int getDepth() {
+        return CommentPath.depth(path);
+    }
+
+    public static CommentResponse from(Comment comment) {
+        return new CommentResponse(comment.getId(), comment.getContent(), comment.getAskId(), comment.getRecId(),
+                comment.getParentId(), comment.getReplyCount(), comment.getCreatedAt(),
+                UserSummary.from(comment.getUser()), comment.getPath());
+    }
+}
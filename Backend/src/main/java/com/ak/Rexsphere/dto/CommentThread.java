@@ -0,0 +1,20 @@
+package com.ak.Rexsphere.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The first comments of one post with the post's total comment count. {@code nextCursor}
+ * continues the thread through the paginated comment endpoint and is null when nothing is left.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentThread {
+
+    private final Long postId;
+    private final long total;
+    private final List<CommentResponse> comments;
+    private final String nextCursor;
+}
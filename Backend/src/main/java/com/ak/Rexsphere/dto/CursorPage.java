@@ -0,0 +1,39 @@
+package com.ak.Rexsphere.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    /** Hard cap on page size, whatever the client asks for. */
+    public static final int MAX_SIZE = 100;
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * Builds a page from a query that fetched {@code size + 1} rows; the extra row only
+     * signals that another page exists and is dropped from the result.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, PageCursor> cursorOf) {
+        return keyedBy(rows, size, row -> cursorOf.apply(row).encode());
+    }
+
+    /** Same as {@link #of} for orderings whose position is already a URL-safe token. */
+    public static <T> CursorPage<T> keyedBy(List<T> rows, int size, Function<T, String> tokenOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, tokenOf.apply(items.get(size - 1)));
+    }
+
+    public static int clampSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
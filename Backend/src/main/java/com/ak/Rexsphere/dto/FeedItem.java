@@ -0,0 +1,23 @@
+package com.ak.Rexsphere.dto;
+
+import com.ak.Rexsphere.enums.VoteType;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A feed entry decorated with its vote and comment counts and the caller's own vote
+ * ({@code null} when the caller has not voted), serialized flat alongside the feed fields.
+ */
+@Getter
+@AllArgsConstructor
+public class FeedItem {
+
+    @JsonUnwrapped
+    private final FeedResponse feed;
+
+    private final long upvotes;
+    private final long downvotes;
+    private final long commentCount;
+    private final VoteType userVote;
+}
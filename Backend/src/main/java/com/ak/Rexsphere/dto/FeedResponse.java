@@ -0,0 +1,27 @@
+package com.ak.Rexsphere.dto;
+
+import com.ak.Rexsphere.entity.Feed;
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.enums.FeedType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class FeedResponse {
+
+    private final Long id;
+    private final String content;
+    private final Category category;
+    private final FeedType type;
+    private final Long referenceId;
+    private final LocalDateTime createdAt;
+    private final UserSummary user;
+
+    public static FeedResponse from(Feed feed) {
+        return new FeedResponse(feed.getId(), feed.getContent(), feed.getCategory(), feed.getType(),
+                feed.getReferenceId(), feed.getCreatedAt(), UserSummary.from(feed.getUser()));
+    }
+}
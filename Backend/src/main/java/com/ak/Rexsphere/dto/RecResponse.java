@@ -0,0 +1,30 @@
+package com.ak.Rexsphere.dto;
+
+import com.ak.Rexsphere.entity.Rec;
+import com.ak.Rexsphere.enums.Category;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class RecResponse {
+
+    private final Long id;
+    private final Category category;
+    private final String content;
+    private final LocalDateTime createdAt;
+    private final UserSummary user;
+
+    /** Flat form used by JPQL constructor expressions, which cannot build the nested author. */
+    public RecResponse(Long id, Category category, String content, LocalDateTime createdAt,
+                       Long userId, String userName, String profilePictureUrl) {
+        this(id, category, content, createdAt, new UserSummary(userId, userName, profilePictureUrl));
+    }
+
+    public static RecResponse from(Rec rec) {
+        return new RecResponse(rec.getId(), rec.getCategory(), rec.getContent(), rec.getCreatedAt(),
+                UserSummary.from(rec.getUser()));
+    }
+}
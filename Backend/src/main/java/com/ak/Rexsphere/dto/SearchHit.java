@@ -0,0 +1,16 @@
+package com.ak.Rexsphere.dto;
+
+import com.ak.Rexsphere.enums.SearchType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+
+    private final SearchType type;
+    private final Long id;
+    private final float score;
+    /** The matching {@link AskResponse}, {@link RecResponse} or {@link CommentResponse}. */
+    private final Object item;
+}
@@ -0,0 +1,13 @@
+package com.ak.Rexsphere.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SimilarAsk {
+
+    private final AskResponse ask;
+    /** Estimated Jaccard similarity of the two questions' terms, from 0 to 1. */
+    private final float similarity;
+}
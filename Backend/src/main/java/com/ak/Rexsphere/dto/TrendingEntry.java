@@ -0,0 +1,16 @@
+package com.ak.Rexsphere.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class TrendingEntry {
+
+    private final String name;
+    /** Activity in the current window. */
+    private final long count;
+    /** Activity in the window of the same length just before it. */
+    private final long previousCount;
+    private final double score;
+}
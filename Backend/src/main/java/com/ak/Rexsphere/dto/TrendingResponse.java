@@ -0,0 +1,16 @@
+package com.ak.Rexsphere.dto;
+
+import com.ak.Rexsphere.enums.TrendingWindow;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class TrendingResponse {
+
+    private final TrendingWindow window;
+    private final List<TrendingEntry> categories;
+    private final List<TrendingEntry> hashtags;
+}
@@ -0,0 +1,34 @@
+package com.ak.Rexsphere.dto;
+
+import com.ak.Rexsphere.entity.User;
+import com.ak.Rexsphere.enums.Category;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * A user's own account details, returned to that user only. Never includes the password hash.
+ */
+@Getter
+@AllArgsConstructor
+public class UserProfile {
+
+    private final Long id;
+    private final String firstName;
+    private final String lastName;
+    private final String email;
+    private final String userName;
+    private final String mobileNumber;
+    private final String profilePictureUrl;
+    private final LocalDate dateOfBirth;
+    private final String address;
+    private final Set<Category> preferredCategories;
+
+    public static UserProfile from(User user) {
+        return new UserProfile(user.getId(), user.getFirstName(), user.getLastName(), user.getEmail(),
+                user.getUserName(), user.getMobileNumber(), user.getProfilePictureUrl(), user.getDateOfBirth(),
+                user.getAddress(), user.getPreferredCategories());
+    }
+}
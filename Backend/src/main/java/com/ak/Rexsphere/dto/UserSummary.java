@@ -0,0 +1,21 @@
+package com.ak.Rexsphere.dto;
+
+import com.ak.Rexsphere.entity.User;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Public view of a user, embedded as the author of posts and comments.
+ */
+@Getter
+@AllArgsConstructor
+public class UserSummary {
+
+    private final Long id;
+    private final String userName;
+    private final String profilePictureUrl;
+
+    public static UserSummary from(User user) {
+        return new UserSummary(user.getId(), user.getUserName(), user.getProfilePictureUrl());
+    }
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,7 +15,10 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "ask")
+@Table(name = "ask", indexes = {
+        @Index(name = "idx_ask_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_ask_category_created_at_id", columnList = "category, created_at, id")
+})
 public class Ask {
 
     @Id
@@ -22,7 +26,7 @@ public class Ask {
     @Column(name = "id")
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -40,4 +44,14 @@ public class Ask {
     @JsonIgnore
     private List<Vote> votes = new ArrayList<>();
 
+    /** Maintained by {@link com.ak.Rexsphere.service.VoteCounterService}; never written through the entity. */
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "upvote_count", nullable = false, insertable = false, updatable = false)
+    private long upvoteCount;
+
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "downvote_count", nullable = false, insertable = false, updatable = false)
+    private long downvoteCount;
 }
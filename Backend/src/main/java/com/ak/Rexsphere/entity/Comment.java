@@ -3,13 +3,19 @@ package com.ak.Rexsphere.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Getter
 @Setter
 @Entity
-@Table(name = "comment")
+@Table(name = "comment", indexes = {
+        @Index(name = "idx_comment_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_comment_ask_path", columnList = "ask_id, path"),
+        @Index(name = "idx_comment_rec_path", columnList = "rec_id, path"),
+        @Index(name = "idx_comment_path", columnList = "path")
+})
 public class Comment {
 
     @Id
@@ -17,7 +23,7 @@ public class Comment {
     @Column(name = "id", updatable = false)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -30,6 +36,19 @@ public class Comment {
     @Column(name = "rec_id")
     private Long recId;
 
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    // See CommentPath. Byte-wise collation keeps index order equal to thread order. Only null
+    // between the insert that assigns the id and the update that sets the path.
+    @Column(name = "path", columnDefinition = "varchar(512) COLLATE \"C\"")
+    private String path;
+
+    // Direct replies only.
+    @ColumnDefault("0")
+    @Column(name = "reply_count", nullable = false)
+    private int replyCount;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 }
@@ -14,6 +14,10 @@ import java.time.LocalDateTime;
 @Setter
 @NoArgsConstructor
 @Entity
+@Table(name = "feed", indexes = {
+        @Index(name = "idx_feed_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_feed_category_created_at_id", columnList = "category, created_at, id")
+})
 public class Feed {
 
     @Id
@@ -31,14 +35,14 @@ public class Feed {
     @Column(nullable = false)
     private FeedType type;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
     @Column(name = "reference_id", nullable = false)
     private Long referenceId;
 
-    @Column(nullable = false, updatable = false)
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
     public Feed(Ask ask) {
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -14,7 +15,10 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "rec")
+@Table(name = "rec", indexes = {
+        @Index(name = "idx_rec_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_rec_category_created_at_id", columnList = "category, created_at, id")
+})
 public class Rec {
 
     @Id
@@ -22,7 +26,7 @@ public class Rec {
     @Column(name = "id", updatable = false, nullable = false)
     private Long id;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
@@ -39,4 +43,15 @@ public class Rec {
 
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    /** Maintained by {@link com.ak.Rexsphere.service.VoteCounterService}; never written through the entity. */
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "upvote_count", nullable = false, insertable = false, updatable = false)
+    private long upvoteCount;
+
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "downvote_count", nullable = false, insertable = false, updatable = false)
+    private long downvoteCount;
 }
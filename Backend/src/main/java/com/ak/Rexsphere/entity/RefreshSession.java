@@ -0,0 +1,46 @@
+package com.ak.Rexsphere.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row per login. Only the newest refresh token of a session, identified by its
+ * generation, is accepted, apart from its predecessor shortly after a rotation; deleting the
+ * row revokes every token the session ever issued.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "refresh_session", indexes = {
+        @Index(name = "idx_refresh_session_user_id", columnList = "user_id"),
+        @Index(name = "idx_refresh_session_expires_at", columnList = "expires_at")
+})
+public class RefreshSession {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "generation", nullable = false)
+    private int generation;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "rotated_at")
+    private LocalDateTime rotatedAt;
+
+    public RefreshSession(String id, Long userId, LocalDateTime expiresAt) {
+        this.id = id;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+    }
+}
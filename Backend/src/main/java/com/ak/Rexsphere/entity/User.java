@@ -1,18 +1,22 @@
 package com.ak.Rexsphere.entity;
 
 import com.ak.Rexsphere.enums.Category;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Collection;
+import java.util.EnumSet;
 
 @Data
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_created_at_id", columnList = "created_at, id"))
+// Lets lazily loaded authors of a result page initialize in one IN query instead of one per user.
+@BatchSize(size = 100)
 public class User {
 
     @Id
@@ -47,19 +51,26 @@ public class User {
     @Column(name = "address")
     private String address;
 
-    @Column(name = "preferred_categories", nullable = false)
-    private String preferredCategories;
+    // Bit n is set when the category with ordinal n is preferred. Null only on an unsaved user
+    // whose preferences were never set, which lets partial updates leave them untouched.
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "preferred_category_mask", nullable = false)
+    private Long preferredCategoryMask;
 
-    public void setPreferredCategories(List<Category> categories){
-        this.preferredCategories = categories.stream()
-                .map(Enum::name)
-                .collect(Collectors.joining(","));
+    public void setPreferredCategories(Collection<Category> categories){
+        this.preferredCategoryMask = categories == null ? null : Category.toMask(categories);
     }
 
-    public List<Category> getPreferredCategories(){
-        return Stream.of(preferredCategories.split(","))
-                .map(Category::valueOf)
-                .collect(Collectors.toList());
+    public EnumSet<Category> getPreferredCategories(){
+        return preferredCategoryMask == null ? null : Category.fromMask(preferredCategoryMask);
+    }
+
+    @PrePersist
+    private void defaultPreferredCategories() {
+        if (preferredCategoryMask == null) {
+            preferredCategoryMask = 0L;
+        }
     }
 
     @Column(name = "created_at", nullable = false, updatable = false)
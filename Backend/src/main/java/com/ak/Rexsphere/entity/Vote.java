@@ -10,22 +10,28 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
-@Table(name = "vote")
+@Table(name = "vote", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_vote_user_rec", columnNames = {"user_id", "rec_id"}),
+        @UniqueConstraint(name = "uk_vote_user_ask", columnNames = {"user_id", "ask_id"})
+}, indexes = {
+        @Index(name = "idx_vote_rec_id", columnList = "rec_id"),
+        @Index(name = "idx_vote_ask_id", columnList = "ask_id")
+})
 public class Vote {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "rec_id")
     private Rec rec;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ask_id")
     private Ask ask;
 
@@ -2,6 +2,13 @@ package com.ak.Rexsphere.enums;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 
+import java.util.Collection;
+import java.util.EnumSet;
+
+/**
+ * Post and preference categories. Ordinals are persisted as bit positions in
+ * {@code users.preferred_category_mask}, so new constants must only be appended (at most 64).
+ */
 public enum Category {
     TECHNOLOGY,
     SPORTS,
@@ -33,4 +40,29 @@ public enum Category {
         }
         throw new IllegalArgumentException("Invalid category: "+ value);
     }
+
+    private static final Category[] VALUES = values();
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public static long toMask(Collection<Category> categories) {
+        long mask = 0;
+        for (Category category : categories) {
+            mask |= category.bit();
+        }
+        return mask;
+    }
+
+    public static EnumSet<Category> fromMask(long mask) {
+        EnumSet<Category> categories = EnumSet.noneOf(Category.class);
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            int ordinal = Long.numberOfTrailingZeros(remaining);
+            if (ordinal < VALUES.length) {
+                categories.add(VALUES[ordinal]);
+            }
+        }
+        return categories;
+    }
 }
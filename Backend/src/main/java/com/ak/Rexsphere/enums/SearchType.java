@@ -0,0 +1,7 @@
+package com.ak.Rexsphere.enums;
+
+public enum SearchType {
+    ASK,
+    REC,
+    COMMENT
+}
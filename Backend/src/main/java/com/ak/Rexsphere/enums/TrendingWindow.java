@@ -0,0 +1,25 @@
+package com.ak.Rexsphere.enums;
+
+import java.time.Duration;
+
+/** A trending window and the time buckets it is counted in. */
+public enum TrendingWindow {
+    HOUR(Duration.ofMinutes(5), 12),
+    DAY(Duration.ofHours(1), 24);
+
+    private final long bucketMillis;
+    private final int buckets;
+
+    TrendingWindow(Duration bucket, int buckets) {
+        this.bucketMillis = bucket.toMillis();
+        this.buckets = buckets;
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+
+    public int getBuckets() {
+        return buckets;
+    }
+}
@@ -1,14 +1,48 @@
 package com.ak.Rexsphere.repository;
 
+import com.ak.Rexsphere.dto.AskResponse;
 import com.ak.Rexsphere.entity.Ask;
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.repository.projection.PostSearchSource;
+import com.ak.Rexsphere.repository.projection.PostVoteCounts;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AskRepository extends JpaRepository<Ask, Long> {
 
-    List<Ask> findByCategory(String category);
+    String SELECT_RESPONSE = "SELECT new com.ak.Rexsphere.dto.AskResponse(a.id, a.category, a.question, a.createdAt, " +
+            "u.id, u.userName, u.profilePictureUrl) FROM Ask a JOIN a.user u";
+
+    String BEFORE_CURSOR = "(a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+            "ORDER BY a.createdAt DESC, a.id DESC";
+
+    @Query(SELECT_RESPONSE + " WHERE " + BEFORE_CURSOR)
+    List<AskResponse> findResponsePageBefore(LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(SELECT_RESPONSE + " WHERE a.category = :category AND " + BEFORE_CURSOR)
+    List<AskResponse> findCategoryResponsePageBefore(Category category, LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(SELECT_RESPONSE + " WHERE a.id = :id")
+    Optional<AskResponse> findResponseById(Long id);
+
+    @Query(SELECT_RESPONSE + " WHERE a.id IN :ids")
+    List<AskResponse> findResponsesByIdIn(Collection<Long> ids);
+
+    @Query("SELECT a.id AS id, a.question AS text, a.category AS category FROM Ask a WHERE a.id > :id ORDER BY a.id")
+    List<PostSearchSource> findSearchSourcesAfter(Long id, Limit limit);
+
+    @Query("SELECT a.id AS id, a.question AS text, a.category AS category FROM Ask a WHERE a.id = :id")
+    Optional<PostSearchSource> findSearchSourceById(Long id);
+
+    @Query("SELECT a.id AS id, a.upvoteCount AS upvoteCount, a.downvoteCount AS downvoteCount FROM Ask a WHERE a.id IN :ids")
+    List<PostVoteCounts> findVoteCountsByIdIn(Collection<Long> ids);
 
 }
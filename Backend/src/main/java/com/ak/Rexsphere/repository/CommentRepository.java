@@ -1,16 +1,92 @@
 package com.ak.Rexsphere.repository;
 
+import com.ak.Rexsphere.dto.CommentResponse;
 import com.ak.Rexsphere.entity.Comment;
+import com.ak.Rexsphere.repository.projection.CommentCount;
+import com.ak.Rexsphere.repository.projection.CommentPreviewRow;
+import com.ak.Rexsphere.repository.projection.CommentSearchSource;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByAskId(Long askId);
-    List<Comment> findByRecId(Long recId);
+    String SELECT_RESPONSE = "SELECT new com.ak.Rexsphere.dto.CommentResponse(c.id, c.content, c.askId, c.recId, " +
+            "c.parentId, c.replyCount, c.createdAt, u.id, u.userName, u.profilePictureUrl, c.path) FROM Comment c JOIN c.user u";
+
+    @Query(SELECT_RESPONSE + " WHERE c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CommentResponse> findResponsePageBefore(LocalDateTime createdAt, Long id, Limit limit);
+
+    // Thread pages walk the path index, so a page of replies costs one range scan at any depth.
+    @Query(SELECT_RESPONSE + " WHERE c.askId = :askId AND c.path > :after ORDER BY c.path")
+    List<CommentResponse> findAskThreadPageAfter(Long askId, String after, Limit limit);
+
+    @Query(SELECT_RESPONSE + " WHERE c.recId = :recId AND c.path > :after ORDER BY c.path")
+    List<CommentResponse> findRecThreadPageAfter(Long recId, String after, Limit limit);
+
+    @Query(SELECT_RESPONSE + " WHERE c.path > :after AND c.path < :end ORDER BY c.path")
+    List<CommentResponse> findSubtreePageAfter(String after, String end, Limit limit);
+
+    @Query("SELECT c.id FROM Comment c WHERE c.path >= :path AND c.path < :end")
+    List<Long> findSubtreeIds(String path, String end);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.path >= :path AND c.path < :end")
+    int deleteSubtree(String path, String end);
+
+    @Modifying
+    @Query("UPDATE Comment c SET c.replyCount = c.replyCount + :delta WHERE c.id = :id")
+    int addReplies(Long id, int delta);
+
+    /*
+     * One row per previewed comment in thread order, each carrying its post's total; a post without
+     * comments yields a single row with only postId and total. Both laterals are answered from the
+     * (post, path) indexes, so long threads cost no more than short ones.
+     */
+    String SELECT_PREVIEW = "SELECT p.post_id AS \"postId\", n.total AS \"total\", c.id AS \"id\", " +
+            "c.content AS \"content\", c.ask_id AS \"askId\", c.rec_id AS \"recId\", c.parent_id AS \"parentId\", " +
+            "c.reply_count AS \"replyCount\", c.created_at AS \"createdAt\", c.user_id AS \"userId\", " +
+            "c.username AS \"userName\", c.profile_picture_url AS \"profilePictureUrl\", c.path AS \"path\" " +
+            "FROM unnest(CAST(:postIds AS bigint[])) AS p(post_id) ";
+
+    String PREVIEW_COMMENTS = "SELECT cm.id, cm.content, cm.ask_id, cm.rec_id, cm.parent_id, cm.reply_count, cm.created_at, " +
+            "cm.user_id, u.username, u.profile_picture_url, cm.path FROM comment cm JOIN users u ON u.id = cm.user_id ";
+
+    String PREVIEW_ORDER = " ORDER BY p.post_id, c.path";
+
+    @Query(value = SELECT_PREVIEW +
+            "CROSS JOIN LATERAL (SELECT count(*) AS total FROM comment WHERE ask_id = p.post_id) n " +
+            "LEFT JOIN LATERAL (" + PREVIEW_COMMENTS + "WHERE cm.ask_id = p.post_id " +
+            "ORDER BY cm.path LIMIT :perPost) c ON true" + PREVIEW_ORDER, nativeQuery = true)
+    List<CommentPreviewRow> findAskThreadPreviews(Long[] postIds, int perPost);
+
+    @Query(value = SELECT_PREVIEW +
+            "CROSS JOIN LATERAL (SELECT count(*) AS total FROM comment WHERE rec_id = p.post_id) n " +
+            "LEFT JOIN LATERAL (" + PREVIEW_COMMENTS + "WHERE cm.rec_id = p.post_id " +
+            "ORDER BY cm.path LIMIT :perPost) c ON true" + PREVIEW_ORDER, nativeQuery = true)
+    List<CommentPreviewRow> findRecThreadPreviews(Long[] postIds, int perPost);
+
+    @Query(SELECT_RESPONSE + " WHERE c.id IN :ids")
+    List<CommentResponse> findResponsesByIdIn(Collection<Long> ids);
+
+    @Query("SELECT c.id AS id, c.content AS text, c.askId AS askId, c.recId AS recId FROM Comment c " +
+            "WHERE c.id > :id ORDER BY c.id")
+    List<CommentSearchSource> findSearchSourcesAfter(Long id, Limit limit);
+
     long countByRecId(Long recId);
     long countByAskId(Long askId);
+
+    @Query("SELECT c.recId AS referenceId, COUNT(c) AS count FROM Comment c WHERE c.recId IN :recIds GROUP BY c.recId")
+    List<CommentCount> countByRecIds(Collection<Long> recIds);
+
+    @Query("SELECT c.askId AS referenceId, COUNT(c) AS count FROM Comment c WHERE c.askId IN :askIds GROUP BY c.askId")
+    List<CommentCount> countByAskIds(Collection<Long> askIds);
 }
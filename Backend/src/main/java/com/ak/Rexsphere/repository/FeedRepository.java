@@ -2,12 +2,47 @@ package com.ak.Rexsphere.repository;
 
 import com.ak.Rexsphere.entity.Feed;
 import com.ak.Rexsphere.enums.Category;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface FeedRepository extends JpaRepository<Feed, Long> {
-    List<Feed> findByCategory(Category category);
+
+    @EntityGraph(attributePaths = "user")
+    List<Feed> findByOrderByCreatedAtDescIdDesc(Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT f FROM Feed f WHERE f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Feed> findPageBefore(LocalDateTime createdAt, Long id, Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    List<Feed> findByCategoryOrderByCreatedAtDescIdDesc(Category category, Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    List<Feed> findByCreatedAtAfterOrderByCreatedAtDescIdDesc(LocalDateTime createdAt, Limit limit);
+
+    @EntityGraph(attributePaths = "user")
+    @Query("SELECT f FROM Feed f WHERE f.category = :category AND " +
+            "(f.createdAt < :createdAt OR (f.createdAt = :createdAt AND f.id < :id)) " +
+            "ORDER BY f.createdAt DESC, f.id DESC")
+    List<Feed> findCategoryPageBefore(Category category, LocalDateTime createdAt, Long id, Limit limit);
+
+    /**
+     * Seeks each category's (category, created_at, id) index independently and returns up to
+     * {@code perCategory} rows per category, older than the given position. Rows are not
+     * globally ordered; callers merge the per-category runs. Authors are left lazy and must be
+     * read inside the calling transaction, where they load in batches.
+     */
+    @Query(value = "SELECT f.* FROM unnest(CAST(:categories AS text[])) AS c(category) " +
+            "CROSS JOIN LATERAL (SELECT * FROM feed WHERE feed.category = c.category " +
+            "AND (feed.created_at, feed.id) < (:createdAt, :id) " +
+            "ORDER BY feed.created_at DESC, feed.id DESC LIMIT :perCategory) f", nativeQuery = true)
+    List<Feed> findCategoryRunsBefore(String[] categories, LocalDateTime createdAt, Long id, int perCategory);
 }
@@ -1,14 +1,48 @@
 package com.ak.Rexsphere.repository;
 
+import com.ak.Rexsphere.dto.RecResponse;
 import com.ak.Rexsphere.entity.Rec;
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.repository.projection.PostSearchSource;
+import com.ak.Rexsphere.repository.projection.PostVoteCounts;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RecRepository extends JpaRepository<Rec, Long> {
 
-    List<Rec> findByCategory(String category);
+    String SELECT_RESPONSE = "SELECT new com.ak.Rexsphere.dto.RecResponse(r.id, r.category, r.content, r.createdAt, " +
+            "u.id, u.userName, u.profilePictureUrl) FROM Rec r JOIN r.user u";
+
+    String BEFORE_CURSOR = "(r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC";
+
+    @Query(SELECT_RESPONSE + " WHERE " + BEFORE_CURSOR)
+    List<RecResponse> findResponsePageBefore(LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(SELECT_RESPONSE + " WHERE r.category = :category AND " + BEFORE_CURSOR)
+    List<RecResponse> findCategoryResponsePageBefore(Category category, LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(SELECT_RESPONSE + " WHERE r.id = :id")
+    Optional<RecResponse> findResponseById(Long id);
+
+    @Query(SELECT_RESPONSE + " WHERE r.id IN :ids")
+    List<RecResponse> findResponsesByIdIn(Collection<Long> ids);
+
+    @Query("SELECT r.id AS id, r.content AS text, r.category AS category FROM Rec r WHERE r.id > :id ORDER BY r.id")
+    List<PostSearchSource> findSearchSourcesAfter(Long id, Limit limit);
+
+    @Query("SELECT r.id AS id, r.content AS text, r.category AS category FROM Rec r WHERE r.id = :id")
+    Optional<PostSearchSource> findSearchSourceById(Long id);
+
+    @Query("SELECT r.id AS id, r.upvoteCount AS upvoteCount, r.downvoteCount AS downvoteCount FROM Rec r WHERE r.id IN :ids")
+    List<PostVoteCounts> findVoteCountsByIdIn(Collection<Long> ids);
 
 }
@@ -0,0 +1,34 @@
+package com.ak.Rexsphere.repository;
+
+import com.ak.Rexsphere.entity.RefreshSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RefreshSessionRepository extends JpaRepository<RefreshSession, String> {
+
+    /**
+     * Moves a live session from {@code generation} to the next one and extends its expiry.
+     * Returns 0 when the session is gone, expired, or already past that generation.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshSession s SET s.generation = s.generation + 1, s.expiresAt = :expiresAt, s.rotatedAt = :now " +
+            "WHERE s.id = :id AND s.generation = :generation AND s.expiresAt > :now")
+    int advance(String id, int generation, LocalDateTime now, LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshSession s WHERE s.userId = :userId")
+    int deleteByUserId(Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshSession s WHERE s.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
@@ -1,11 +1,46 @@
 package com.ak.Rexsphere.repository;
 
+import com.ak.Rexsphere.dto.UserSummary;
 import com.ak.Rexsphere.entity.User;
+import com.ak.Rexsphere.repository.projection.UserListing;
+import com.ak.Rexsphere.repository.projection.UserNameEntry;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
     User findByUserName(String userName);
+
+    @Query("SELECT u.id AS id, u.userName AS userName, u.profilePictureUrl AS profilePictureUrl, u.createdAt AS createdAt " +
+            "FROM User u WHERE u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id) " +
+            "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserListing> findListingPageBefore(LocalDateTime createdAt, Long id, Limit limit);
+
+    @Query(value = "SELECT id AS \"id\", username AS \"userName\", profile_picture_url AS \"profilePictureUrl\", " +
+            "created_at AS \"createdAt\" FROM users " +
+            "WHERE (preferred_category_mask & :categoryMask) <> 0 AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<UserListing> findListingPageInCategoriesBefore(long categoryMask, LocalDateTime createdAt, Long id, int limit);
+
+    @Query("SELECT u.preferredCategoryMask FROM User u WHERE u.id = :id")
+    Optional<Long> findPreferredCategoryMaskById(Long id);
+
+    @Query("SELECT new com.ak.Rexsphere.dto.UserSummary(u.id, u.userName, u.profilePictureUrl) FROM User u " +
+            "WHERE u.userName = :userName")
+    Optional<UserSummary> findSummaryByUserName(String userName);
+
+    @Query("SELECT new com.ak.Rexsphere.dto.UserSummary(u.id, u.userName, u.profilePictureUrl) FROM User u " +
+            "WHERE u.id IN :ids")
+    List<UserSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query("SELECT u.id AS id, u.userName AS userName FROM User u WHERE u.id > :id ORDER BY u.id")
+    List<UserNameEntry> findUserNamesAfter(Long id, Limit limit);
 }
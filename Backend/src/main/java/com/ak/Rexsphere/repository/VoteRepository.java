@@ -1,19 +1,61 @@
 package com.ak.Rexsphere.repository;
 
-import com.ak.Rexsphere.entity.Ask;
-import com.ak.Rexsphere.entity.Rec;
 import com.ak.Rexsphere.entity.Vote;
-import com.ak.Rexsphere.entity.User;
 import com.ak.Rexsphere.enums.VoteType;
+import com.ak.Rexsphere.repository.projection.UserVote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface VoteRepository extends JpaRepository<Vote, Long> {
-
-    Vote findByRecAndUser(Rec rec, User user);
+import java.util.Collection;
+import java.util.List;
 
-    Vote findByAskAndUser(Ask ask, User user);
+public interface VoteRepository extends JpaRepository<Vote, Long> {
 
     long countByRecIdAndVoteType(Long recId, VoteType voteType);
 
     long countByAskIdAndVoteType(Long askId, VoteType voteType);
+
+    /**
+     * Applies a vote toggle in one statement: inserts the vote, switches its type, or removes it
+     * when the same type is cast again. Returns INSERTED, SWITCHED, REMOVED or UNCHANGED.
+     */
+    @Transactional
+    @Query(value = "WITH upsert AS (" +
+            "INSERT INTO vote (user_id, rec_id, vote_type, created_at) VALUES (:userId, :recId, :voteType, LOCALTIMESTAMP) " +
+            "ON CONFLICT (user_id, rec_id) DO UPDATE SET vote_type = EXCLUDED.vote_type " +
+            "WHERE vote.vote_type <> EXCLUDED.vote_type " +
+            "RETURNING (xmax = 0) AS inserted), " +
+            "removed AS (" +
+            "DELETE FROM vote WHERE user_id = :userId AND rec_id = :recId AND vote_type = :voteType " +
+            "AND NOT EXISTS (SELECT 1 FROM upsert) RETURNING id) " +
+            "SELECT CASE WHEN EXISTS (SELECT 1 FROM removed) THEN 'REMOVED' " +
+            "WHEN EXISTS (SELECT 1 FROM upsert WHERE inserted) THEN 'INSERTED' " +
+            "WHEN EXISTS (SELECT 1 FROM upsert) THEN 'SWITCHED' " +
+            "ELSE 'UNCHANGED' END", nativeQuery = true)
+    String toggleRecVote(Long userId, Long recId, String voteType);
+
+    /** Ask counterpart of {@link #toggleRecVote}. */
+    @Transactional
+    @Query(value = "WITH upsert AS (" +
+            "INSERT INTO vote (user_id, ask_id, vote_type, created_at) VALUES (:userId, :askId, :voteType, LOCALTIMESTAMP) " +
+            "ON CONFLICT (user_id, ask_id) DO UPDATE SET vote_type = EXCLUDED.vote_type " +
+            "WHERE vote.vote_type <> EXCLUDED.vote_type " +
+            "RETURNING (xmax = 0) AS inserted), " +
+            "removed AS (" +
+            "DELETE FROM vote WHERE user_id = :userId AND ask_id = :askId AND vote_type = :voteType " +
+            "AND NOT EXISTS (SELECT 1 FROM upsert) RETURNING id) " +
+            "SELECT CASE WHEN EXISTS (SELECT 1 FROM removed) THEN 'REMOVED' " +
+            "WHEN EXISTS (SELECT 1 FROM upsert WHERE inserted) THEN 'INSERTED' " +
+            "WHEN EXISTS (SELECT 1 FROM upsert) THEN 'SWITCHED' " +
+            "ELSE 'UNCHANGED' END", nativeQuery = true)
+    String toggleAskVote(Long userId, Long askId, String voteType);
+
+    @Query("SELECT v.rec.id AS referenceId, v.voteType AS voteType FROM Vote v " +
+            "WHERE v.user.id = :userId AND v.rec.id IN :recIds")
+    List<UserVote> findUserVotesForRecs(Long userId, Collection<Long> recIds);
+
+    @Query("SELECT v.ask.id AS referenceId, v.voteType AS voteType FROM Vote v " +
+            "WHERE v.user.id = :userId AND v.ask.id IN :askIds")
+    List<UserVote> findUserVotesForAsks(Long userId, Collection<Long> askIds);
 }
@@ -0,0 +1,6 @@
+package com.ak.Rexsphere.repository.projection;
+
+public interface CommentCount {
+    Long getReferenceId();
+    long getCount();
+}
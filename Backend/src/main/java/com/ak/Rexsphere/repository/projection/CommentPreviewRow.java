@@ -0,0 +1,19 @@
+package com.ak.Rexsphere.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface CommentPreviewRow {
+    Long getPostId();
+    long getTotal();
+    Long getId();
+    String getContent();
+    Long getAskId();
+    Long getRecId();
+    Long getParentId();
+    Integer getReplyCount();
+    LocalDateTime getCreatedAt();
+    Long getUserId();
+    String getUserName();
+    String getProfilePictureUrl();
+    String getPath();
+}
@@ -0,0 +1,8 @@
+package com.ak.Rexsphere.repository.projection;
+
+public interface CommentSearchSource {
+    Long getId();
+    String getText();
+    Long getAskId();
+    Long getRecId();
+}
@@ -0,0 +1,9 @@
+package com.ak.Rexsphere.repository.projection;
+
+import com.ak.Rexsphere.enums.Category;
+
+public interface PostSearchSource {
+    Long getId();
+    String getText();
+    Category getCategory();
+}
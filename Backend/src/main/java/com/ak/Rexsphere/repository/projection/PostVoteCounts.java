@@ -0,0 +1,7 @@
+package com.ak.Rexsphere.repository.projection;
+
+public interface PostVoteCounts {
+    Long getId();
+    long getUpvoteCount();
+    long getDownvoteCount();
+}
@@ -0,0 +1,10 @@
+package com.ak.Rexsphere.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface UserListing {
+    Long getId();
+    String getUserName();
+    String getProfilePictureUrl();
+    LocalDateTime getCreatedAt();
+}
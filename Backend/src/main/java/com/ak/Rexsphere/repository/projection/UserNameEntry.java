@@ -0,0 +1,6 @@
+package com.ak.Rexsphere.repository.projection;
+
+public interface UserNameEntry {
+    Long getId();
+    String getUserName();
+}
@@ -0,0 +1,8 @@
+package com.ak.Rexsphere.repository.projection;
+
+import com.ak.Rexsphere.enums.VoteType;
+
+public interface UserVote {
+    Long getReferenceId();
+    VoteType getVoteType();
+}
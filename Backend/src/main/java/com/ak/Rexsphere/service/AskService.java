@@ -1,13 +1,18 @@
 package com.ak.Rexsphere.service;
 
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.AskResponse;
+import com.ak.Rexsphere.dto.SimilarAsk;
 import com.ak.Rexsphere.entity.Ask;
 
 import java.util.List;
 
 public interface AskService {
-    Ask createAsk(Ask ask);
-    List<Ask> getAllAsks();
-    Ask getAskById(Long id);
-    List<Ask> getAsksByCategory(String category);
+    AskResponse createAsk(Ask ask);
+    CursorPage<AskResponse> getAllAsks(String cursor, int size);
+    AskResponse getAskById(Long id);
+    CursorPage<AskResponse> getAsksByCategory(String category, String cursor, int size);
+    List<SimilarAsk> getSimilarAsks(Long id, int size);
+    List<SimilarAsk> findSimilarAsks(String question, String category, int size);
     void deleteAsk(Long id);
 }
@@ -1,16 +1,22 @@
 package com.ak.Rexsphere.service;
 
+import com.ak.Rexsphere.dto.CommentResponse;
+import com.ak.Rexsphere.dto.CommentThread;
+import com.ak.Rexsphere.dto.CursorPage;
 import com.ak.Rexsphere.entity.Comment;
 
 import java.util.List;
 
 public interface CommentService {
 
-    Comment addComment(Comment comment);
-    List<Comment> getAllComments();
-    List<Comment> getCommentsForAsk(Long askId);
-    List<Comment> getCommentsForRec(Long recId);
-    Comment updateComment(Long id, Comment updatedComment);
+    CommentResponse addComment(Comment comment);
+    CursorPage<CommentResponse> getAllComments(String cursor, int size);
+    CursorPage<CommentResponse> getCommentsForAsk(Long askId, String cursor, int size);
+    CursorPage<CommentResponse> getCommentsForRec(Long recId, String cursor, int size);
+    CursorPage<CommentResponse> getReplies(Long commentId, String cursor, int size);
+    List<CommentThread> getAskThreadPreviews(List<Long> askIds, int size);
+    List<CommentThread> getRecThreadPreviews(List<Long> recIds, int size);
+    CommentResponse updateComment(Long id, Comment updatedComment);
     void deleteComment(Long id);
     Long getCommentCountForRec(Long recId);
     Long getCommentCountForAsk(Long askId);
@@ -1,11 +1,19 @@
 package com.ak.Rexsphere.service;
 
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.FeedItem;
+import com.ak.Rexsphere.dto.FeedResponse;
 import com.ak.Rexsphere.entity.Feed;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
 public interface FeedService {
     Feed savetoFeed(Feed feed);
-    List<Feed> getAllFeed();
-    List<Feed> getFeedByCategory(String category);
+    CursorPage<FeedResponse> getAllFeed(String cursor, int size);
+    CursorPage<FeedResponse> getFeedByCategory(String category, String cursor, int size);
+    CursorPage<FeedResponse> getFeedForMe(String cursor, int size);
+    List<FeedResponse> getHotFeed(int size);
+    CursorPage<FeedItem> getHydratedFeed(String category, String cursor, int size);
+    SseEmitter streamFeed(String category);
 }
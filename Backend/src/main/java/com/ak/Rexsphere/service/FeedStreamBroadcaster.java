@@ -0,0 +1,247 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.dto.FeedResponse;
+import com.ak.Rexsphere.entity.Feed;
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.util.AfterCommit;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes newly created feed entries to Server-Sent Event subscribers. Subscriptions are async
+ * servlet requests, so an idle connection holds a socket but no request thread. Each entry is
+ * serialized once after the creating transaction commits and put on every matching subscriber's
+ * queue without blocking. Sender threads, started on demand up to a cap, drain the queues one
+ * subscriber at a time, so a slow client only delays itself: a stalled connection holds a single
+ * sender thread until the container's write timeout ends its blocked write. A subscriber whose
+ * queue overflows, or whose send has been blocked for longer than the send timeout, is
+ * disconnected. When every sender is busy, a subscriber is drained on its next event instead.
+ */
+@Service
+public class FeedStreamBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedStreamBroadcaster.class);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor senders;
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMillis;
+    private final int queueCapacity;
+    private final long sendTimeoutNanos;
+    private final Counter evicted;
+
+    public FeedStreamBroadcaster(ObjectMapper objectMapper,
+                                 @Value("${feed.stream.timeout-ms:1800000}") long timeoutMillis,
+                                 @Value("${feed.stream.sender-threads:64}") int senderThreads,
+                                 @Value("${feed.stream.queue-capacity:32}") int queueCapacity,
+                                 @Value("${feed.stream.send-timeout-ms:10000}") long sendTimeoutMillis,
+                                 MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.timeoutMillis = timeoutMillis;
+        this.queueCapacity = queueCapacity;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        AtomicInteger sequence = new AtomicInteger();
+        this.senders = new ThreadPoolExecutor(0, senderThreads, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "feed-stream-sender-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, senders, "feed.stream.senders");
+        this.evicted = Counter.builder("feed.stream.evicted").register(meterRegistry);
+        Gauge.builder("feed.stream.subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    /** Opens a stream of new entries, limited to one category when {@code category} is not null. */
+    public SseEmitter subscribe(Category category) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, category);
+        emitter.onCompletion(() -> subscriber.close(false));
+        emitter.onTimeout(() -> subscriber.close(false));
+        emitter.onError(e -> subscriber.close(false));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public void publish(Feed feed) {
+        AfterCommit.run(() -> broadcast(feed));
+    }
+
+    // Comment-only events keep proxies from closing idle streams and surface dead connections.
+    @Scheduled(fixedDelayString = "${feed.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                evict(subscriber, "send blocked");
+            } else {
+                subscriber.offer(ping);
+            }
+        }
+    }
+
+    // Runs before the web server's graceful shutdown, which would otherwise wait on open streams.
+    @EventListener(ContextClosedEvent.class)
+    public void shutdown() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private void broadcast(Feed feed) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(FeedResponse.from(feed));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize feed entry {} for streaming", feed.getId(), e);
+            return;
+        }
+        Set<DataWithMediaType> event = SseEmitter.event()
+                .name("feed")
+                .id(String.valueOf(feed.getId()))
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.category == null || subscriber.category == feed.getCategory()) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    private void evict(Subscriber subscriber, String reason) {
+        evicted.increment();
+        log.debug("Disconnecting feed stream subscriber: {}", reason);
+        subscriber.close(true);
+    }
+
+    /**
+     * Pending events of one connection. Only the drain task sends or completes the emitter, both
+     * of which lock it, so closing from any other thread never waits on a blocked write.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Category category;
+        private final Deque<Set<DataWithMediaType>> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+        private boolean completeOnClose;
+        private volatile long sendStartedAt;
+
+        Subscriber(SseEmitter emitter, Category category) {
+            this.emitter = emitter;
+            this.category = category;
+        }
+
+        void offer(Set<DataWithMediaType> event) {
+            boolean overflow = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= queueCapacity) {
+                    overflow = true;
+                } else {
+                    queue.add(event);
+                }
+            }
+            if (overflow) {
+                evict(this, "queue full");
+            }
+            scheduleDrain();
+        }
+
+        boolean isStalled(long now) {
+            long started = sendStartedAt;
+            return started != 0 && now - started > sendTimeoutNanos;
+        }
+
+        // The emitter is completed by the drain task unless the container already ended the stream.
+        void close(boolean completeEmitter) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                completeOnClose = completeEmitter;
+                queue.clear();
+            }
+            subscribers.remove(this);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            synchronized (this) {
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Every sender is busy, or shutting down; the next event or heartbeat retries.
+                synchronized (this) {
+                    draining = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Set<DataWithMediaType> event;
+                synchronized (this) {
+                    if (closed) {
+                        draining = false;
+                        if (!completeOnClose) {
+                            return;
+                        }
+                        break;
+                    }
+                    event = queue.poll();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                sendStartedAt = System.nanoTime();
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // The container reports the failed connection to the emitter itself.
+                    close(false);
+                } finally {
+                    sendStartedAt = 0;
+                }
+            }
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.entity.Feed;
+import com.ak.Rexsphere.enums.FeedType;
+import com.ak.Rexsphere.repository.CommentRepository;
+import com.ak.Rexsphere.repository.FeedRepository;
+import com.ak.Rexsphere.repository.projection.CommentCount;
+import com.ak.Rexsphere.util.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ranks recent feed entries by votes, comments and age. Each candidate's score is
+ * {@code sign(n) * log10(max(|n|, 1)) + createdAtSeconds / decaySeconds}, where n is net votes
+ * plus weighted comments. Age decay comes from the creation-time term: every decaySeconds a
+ * newer post needs ten times the engagement to outrank an older one. Scores therefore depend
+ * only on vote and comment events, and are updated in place in a score-ordered set instead of
+ * sorting the feed table per request. A periodic pass evicts posts past the ranking window.
+ */
+@Service
+public class HotFeedRanker {
+
+    private static final double COMMENT_WEIGHT = 0.5;
+
+    private static final Comparator<Candidate> BY_SCORE = Comparator.comparingDouble((Candidate c) -> c.score)
+            .thenComparing(c -> c.feed.getId())
+            .reversed();
+
+    private static final Comparator<Candidate> BY_AGE = Comparator.comparing((Candidate c) -> c.feed.getCreatedAt())
+            .thenComparing(c -> c.feed.getId());
+
+    @Autowired
+    private FeedRepository feedRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private VoteCounterService voteCounterService;
+
+    private final int poolSize;
+    private final long maxAgeHours;
+    private final double decaySeconds;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<PostKey, Candidate> candidates = new HashMap<>();
+    private final TreeSet<Candidate> byScore = new TreeSet<>(BY_SCORE);
+    private final TreeSet<Candidate> byAge = new TreeSet<>(BY_AGE);
+
+    public HotFeedRanker(@Value("${feed.hot.pool-size:5000}") int poolSize,
+                         @Value("${feed.hot.max-age-hours:72}") long maxAgeHours,
+                         @Value("${feed.hot.decay-seconds:45000}") double decaySeconds) {
+        this.poolSize = poolSize;
+        this.maxAgeHours = maxAgeHours;
+        this.decaySeconds = decaySeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<Feed> recent = feedRepository.findByCreatedAtAfterOrderByCreatedAtDescIdDesc(
+                LocalDateTime.now().minusHours(maxAgeHours), Limit.of(poolSize));
+
+        Map<FeedType, List<Long>> ids = new EnumMap<>(FeedType.class);
+        for (Feed feed : recent) {
+            ids.computeIfAbsent(feed.getType(), type -> new ArrayList<>()).add(feed.getReferenceId());
+        }
+        Map<PostKey, long[]> votes = new HashMap<>();
+        Map<PostKey, Long> comments = new HashMap<>();
+        ids.forEach((type, referenceIds) -> {
+            voteCounterService.getCounts(type, referenceIds).forEach((id, counts) -> votes.put(new PostKey(type, id), counts));
+            List<CommentCount> counts = type == FeedType.REC
+                    ? commentRepository.countByRecIds(referenceIds)
+                    : commentRepository.countByAskIds(referenceIds);
+            counts.forEach(count -> comments.put(new PostKey(type, count.getReferenceId()), count.getCount()));
+        });
+
+        lock.writeLock().lock();
+        try {
+            for (Feed feed : recent) {
+                PostKey key = new PostKey(feed.getType(), feed.getReferenceId());
+                long[] counts = votes.getOrDefault(key, new long[2]);
+                if (!candidates.containsKey(key)) {
+                    insert(key, new Candidate(feed, counts[0] - counts[1], comments.getOrDefault(key, 0L)));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Returns up to {@code limit} entries, highest score first. */
+    public List<Feed> top(int limit) {
+        lock.readLock().lock();
+        try {
+            List<Feed> top = new ArrayList<>(Math.min(limit, byScore.size()));
+            for (Candidate candidate : byScore) {
+                if (top.size() == limit) {
+                    break;
+                }
+                top.add(candidate.feed);
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void add(Feed feed) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                PostKey key = new PostKey(feed.getType(), feed.getReferenceId());
+                if (!candidates.containsKey(key)) {
+                    insert(key, new Candidate(feed, 0, 0));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void recordVote(FeedType type, Long id, long netDelta) {
+        AfterCommit.run(() -> rescore(new PostKey(type, id), netDelta, 0));
+    }
+
+    public void recordComment(FeedType type, Long id, long commentDelta) {
+        AfterCommit.run(() -> rescore(new PostKey(type, id), 0, commentDelta));
+    }
+
+    @Scheduled(fixedDelayString = "${feed.hot.evict-interval-ms:600000}")
+    public void evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(maxAgeHours);
+        lock.writeLock().lock();
+        try {
+            while (!byAge.isEmpty() && byAge.first().feed.getCreatedAt().isBefore(cutoff)) {
+                remove(byAge.first());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void rescore(PostKey key, long netDelta, long commentDelta) {
+        lock.writeLock().lock();
+        try {
+            Candidate candidate = candidates.get(key);
+            if (candidate == null) {
+                return;
+            }
+            byScore.remove(candidate);
+            candidate.netVotes += netDelta;
+            candidate.comments += commentDelta;
+            candidate.score = score(candidate);
+            byScore.add(candidate);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void insert(PostKey key, Candidate candidate) {
+        candidate.score = score(candidate);
+        candidates.put(key, candidate);
+        byScore.add(candidate);
+        byAge.add(candidate);
+        while (candidates.size() > poolSize) {
+            remove(byAge.first());
+        }
+    }
+
+    private void remove(Candidate candidate) {
+        candidates.remove(new PostKey(candidate.feed.getType(), candidate.feed.getReferenceId()));
+        byScore.remove(candidate);
+        byAge.remove(candidate);
+    }
+
+    private double score(Candidate candidate) {
+        double engagement = candidate.netVotes + COMMENT_WEIGHT * candidate.comments;
+        double order = Math.log10(Math.max(Math.abs(engagement), 1));
+        double seconds = candidate.feed.getCreatedAt().toEpochSecond(ZoneOffset.UTC);
+        return Math.signum(engagement) * order + seconds / decaySeconds;
+    }
+
+    private record PostKey(FeedType type, Long id) {
+    }
+
+    private static final class Candidate {
+        private final Feed feed;
+        private long netVotes;
+        private long comments;
+        private double score;
+
+        private Candidate(Feed feed, long netVotes, long comments) {
+            this.feed = feed;
+            this.netVotes = netVotes;
+            this.comments = comments;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.ak.Rexsphere.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes images that are no longer referenced, in the background. A failed delete is retried
+ * with exponential backoff and jitter, so a storage outage leaves no orphaned images once it is
+ * over. Pending deletes are kept in memory only and are dropped on shutdown.
+ */
+@Service
+public class ImageCleanup {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageCleanup.class);
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final Counter retries;
+    private final Counter abandoned;
+
+    public ImageCleanup(@Value("${image.cleanup.max-attempts:8}") int maxAttempts,
+                        @Value("${image.cleanup.initial-backoff-millis:2000}") long initialBackoffMillis,
+                        @Value("${image.cleanup.max-backoff-millis:300000}") long maxBackoffMillis,
+                        MeterRegistry meterRegistry) {
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "image-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.retries = Counter.builder("image.cleanup.retries").register(meterRegistry);
+        this.abandoned = Counter.builder("image.cleanup.abandoned").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void deleteLater(String url) {
+        scheduler.execute(() -> attempt(url, 1));
+    }
+
+    private void attempt(String url, int attempt) {
+        try {
+            imageStorage.delete(url);
+        } catch (IOException | RuntimeException e) {
+            if (attempt >= maxAttempts) {
+                abandoned.increment();
+                log.warn("Giving up deleting image {} after {} attempts", url, attempt, e);
+                return;
+            }
+            retries.increment();
+            long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+            long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+            log.debug("Deleting image {} failed, retrying in {} ms", url, delay, e);
+            scheduler.schedule(() -> attempt(url, attempt + 1), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+}
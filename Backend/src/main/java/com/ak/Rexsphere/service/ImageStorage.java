@@ -0,0 +1,21 @@
+package com.ak.Rexsphere.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where uploaded images are kept. Images are handed over as files on local disk and streamed
+ * from there, so an upload is never held in memory as a whole. The backend is chosen with
+ * {@code storage.type}: {@code cloudinary} (the default) or {@code local}.
+ */
+public interface ImageStorage {
+
+    /**
+     * Stores {@code source} under {@code name} and returns the URL it is served from.
+     * {@code source} may be moved; callers delete it afterwards if it still exists.
+     */
+    String store(Path source, String name, String contentType) throws IOException;
+
+    /** Deletes an image by the URL {@link #store} returned; unknown URLs are ignored. */
+    void delete(String url) throws IOException;
+}
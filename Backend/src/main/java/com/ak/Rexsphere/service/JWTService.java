@@ -1,26 +1,57 @@
 package com.ak.Rexsphere.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.Map;
-import java.util.function.Function;
 
+/**
+ * Issues and verifies JWTs. Verification parses and checks the signature once, then caches
+ * the resulting claims under the token's SHA-256 digest until the token expires, so repeat
+ * requests with the same token skip parsing and HMAC verification entirely.
+ * Refresh tokens are marked with a {@code typ} claim and are never accepted as access tokens.
+ */
 @Service
 public class JWTService {
 
+    private static final String TOKEN_TYPE = "typ";
+    private static final String REFRESH_TYPE = "refresh";
+
     private final SecretKey secretKey;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
-    public JWTService(@Value("${jwt.secret}") String secret) {
+    public JWTService(@Value("${jwt.secret}") String secret,
+                      @Value("${jwt.cache.max-size:10000}") long cacheSize,
+                      MeterRegistry meterRegistry) {
         byte[] keyBytes = Decoders.BASE64.decode(secret);
         this.secretKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser().verifyWith(secretKey).build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
     }
 
     public String generateToken(String userName, Long userId) {
@@ -32,29 +63,91 @@ public class JWTService {
                 .signWith(secretKey)
                 .compact();
     }
-    
-    public String extractUserName(String token) {
-        return extractClaim(token, Claims::getSubject);
+
+    public String generateRefreshToken(Long userId, String sessionId, int generation, Instant expiresAt) {
+        return Jwts.builder()
+                .claims(Map.of(TOKEN_TYPE, REFRESH_TYPE, "userId", userId, "sid", sessionId, "gen", generation))
+                .issuedAt(new Date())
+                .expiration(Date.from(expiresAt))
+                .signWith(secretKey)
+                .compact();
+    }
+
+    /**
+     * Returns the identity carried by a valid, unexpired access token, or null when the token is
+     * malformed, badly signed or expired. Only valid tokens are cached.
+     */
+    public VerifiedToken verify(String token) {
+        String digest = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Long userId = claims.get("userId", Long.class);
+        if (REFRESH_TYPE.equals(claims.get(TOKEN_TYPE)) || claims.getSubject() == null || userId == null
+                || claims.getExpiration() == null) {
+            return null;
+        }
+
+        VerifiedToken verified = new VerifiedToken(claims.getSubject(), userId, claims.getExpiration().toInstant());
+        verifiedTokens.put(digest, verified);
+        return verified;
+    }
+
+    /** Returns the session position of a valid, unexpired refresh token, or null. */
+    public RefreshClaims parseRefreshToken(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        String sessionId = claims.get("sid", String.class);
+        Integer generation = claims.get("gen", Integer.class);
+        Long userId = claims.get("userId", Long.class);
+        if (!REFRESH_TYPE.equals(claims.get(TOKEN_TYPE)) || sessionId == null || generation == null || userId == null) {
+            return null;
+        }
+        return new RefreshClaims(sessionId, generation, userId);
     }
 
-    public Long extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", Long.class));
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        return extractUserName(token).equals(userDetails.getUsername()) && !isTokenExpired(token);
+    public record VerifiedToken(String userName, Long userId, Instant expiresAt) {
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractClaim(token, Claims::getExpiration).before(new Date());
+    public record RefreshClaims(String sessionId, int generation, Long userId) {
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claimsResolver.apply(claims);
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String digest, VerifiedToken token, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String digest, VerifiedToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
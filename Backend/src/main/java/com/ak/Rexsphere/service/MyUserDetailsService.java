@@ -2,23 +2,58 @@ package com.ak.Rexsphere.service;
 
 import com.ak.Rexsphere.entity.User;
 import com.ak.Rexsphere.repository.UserRepository;
+import com.ak.Rexsphere.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Collections;
 
+/**
+ * Loads login credentials through a bounded, time-limited cache. Callers that change a user's
+ * username or password, or delete the user, must {@link #evict} the old username.
+ */
 @Service
 public class MyUserDetailsService implements UserDetailsService {
 
     @Autowired
     private UserRepository userRepository;
 
+    private final Cache<String, UserDetails> cache;
+
+    public MyUserDetailsService(@Value("${auth.user-cache.max-size:10000}") long maxSize,
+                                @Value("${auth.user-cache.ttl-seconds:300}") long ttlSeconds,
+                                MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user.details");
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        UserDetails cached = cache.get(username, this::load);
+        // Authentication erases the password on the principal it returns, so never hand out the cached instance.
+        return org.springframework.security.core.userdetails.User.withUserDetails(cached).build();
+    }
+
+    /** Drops the cached entry once the surrounding transaction, if any, has committed. */
+    public void evict(String username) {
+        AfterCommit.run(() -> cache.invalidate(username));
+    }
+
+    private UserDetails load(String username) {
         User user = userRepository.findByUserName(username);
         if (user == null) {
             throw new UsernameNotFoundException("User not found: "+username);
@@ -0,0 +1,207 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.config.SaturatedException;
+import com.ak.Rexsphere.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replaces profile pictures off the request thread. The upload is staged to a temporary file,
+ * then a bounded pool crops it to a square, scales it to each of {@link #SIZES} and stores the
+ * results, and finally points the user at the new picture and deletes the old one. Images are
+ * decoded with source subsampling, so whatever the upload's resolution no more than about twice
+ * the largest avatar is held in memory. When the pool and its queue are full, uploads are turned
+ * away with 503 and Retry-After.
+ */
+@Service
+public class ProfilePictureService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProfilePictureService.class);
+
+    /** Avatar edge lengths in pixels; the profile picture URL is the first, the others differ only in the suffix. */
+    public static final int[] SIZES = {256, 64};
+
+    private static final long MAX_PIXELS = 100_000_000L;
+    private static final String SATURATED = "Too many image uploads, please retry shortly.";
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ImageCleanup imageCleanup;
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    public ProfilePictureService(@Value("${avatar.processing.threads:2}") int threads,
+                                 @Value("${avatar.processing.queue-capacity:16}") int queueCapacity,
+                                 @Value("${avatar.processing.retry-after-seconds:5}") long retryAfterSeconds,
+                                 MeterRegistry meterRegistry) {
+        this.retryAfterSeconds = retryAfterSeconds;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "avatar-processing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "avatar.processing");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /** Completes with the new profile picture URL once it is stored and saved on the user. */
+    public CompletableFuture<String> replace(Long userId, MultipartFile file) throws IOException {
+        if (file.isEmpty() || file.getContentType() == null || !file.getContentType().startsWith("image/")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only image uploads are supported.");
+        }
+        // The multipart part already lives on disk; transferTo moves or copies it without reading it into memory.
+        Path staged = Files.createTempFile("avatar-", ".upload");
+        try {
+            file.transferTo(staged);
+            return CompletableFuture.supplyAsync(() -> process(userId, staged), executor);
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(staged);
+            throw new SaturatedException(SATURATED, retryAfterSeconds);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(staged);
+            throw e;
+        }
+    }
+
+    private String process(Long userId, Path staged) {
+        String baseName = userId + "-" + UUID.randomUUID();
+        List<Path> scaled = new ArrayList<>();
+        List<String> stored = new ArrayList<>();
+        try {
+            BufferedImage square = readSquare(staged, SIZES[0] * 2);
+            for (int size : SIZES) {
+                Path target = Files.createTempFile("avatar-", ".jpg");
+                scaled.add(target);
+                ImageIO.write(scale(square, size), "jpg", target.toFile());
+                stored.add(imageStorage.store(target, baseName + "_" + size + ".jpg", "image/jpeg"));
+            }
+            String url = stored.get(0);
+
+            User user = userService.getUserById(userId);
+            String previousUrl = user == null ? null : user.getProfilePictureUrl();
+            userService.updateProfilePictureUrl(userId, url);
+            if (previousUrl != null && !previousUrl.isEmpty()) {
+                deleteLater(previousUrl);
+            }
+            return url;
+        } catch (IOException | RuntimeException e) {
+            // Sizes stored before the failure are not referenced by anyone.
+            stored.forEach(imageCleanup::deleteLater);
+            if (e instanceof IOException io) {
+                throw new UncheckedIOException(io);
+            }
+            throw (RuntimeException) e;
+        } finally {
+            deleteQuietly(staged);
+            scaled.forEach(ProfilePictureService::deleteQuietly);
+        }
+    }
+
+    /**
+     * Decodes the centered square of the image, subsampled so that its edge is at least
+     * {@code minEdge} but below twice that when the source is larger.
+     */
+    private static BufferedImage readSquare(Path source, int minEdge) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported image format.");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                // Dimensions come from the header; nothing has been decoded yet.
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Image resolution is too large.");
+                }
+                int edge = Math.min(width, height);
+                int subsampling = Math.max(1, edge / minEdge);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(new Rectangle((width - edge) / 2, (height - edge) / 2, edge, edge));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage square, int size) {
+        BufferedImage scaled = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // JPEG has no alpha channel, so transparent areas become white rather than black.
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, size, size);
+            graphics.drawImage(square, 0, 0, size, size, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    // Pictures stored by this service come in every size; older ones are a single image.
+    private void deleteLater(String url) {
+        String suffix = "_" + SIZES[0] + ".jpg";
+        List<String> urls = new ArrayList<>();
+        if (url.endsWith(suffix)) {
+            String prefix = url.substring(0, url.length() - suffix.length());
+            for (int size : SIZES) {
+                urls.add(prefix + "_" + size + ".jpg");
+            }
+        } else {
+            urls.add(url);
+        }
+        urls.forEach(imageCleanup::deleteLater);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary file {}", path, e);
+        }
+    }
+}
@@ -1,13 +1,13 @@
 package com.ak.Rexsphere.service;
 
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.RecResponse;
 import com.ak.Rexsphere.entity.Rec;
 
-import java.util.List;
-
 public interface RecService {
-    Rec createRec(Rec rec);
-    List<Rec> getAllRecs();
-    Rec getRecById(Long id);
-    List<Rec> getRecsByCategory(String category);
+    RecResponse createRec(Rec rec);
+    CursorPage<RecResponse> getAllRecs(String cursor, int size);
+    RecResponse getRecById(Long id);
+    CursorPage<RecResponse> getRecsByCategory(String category, String cursor, int size);
     void deleteRec(Long id);
 }
@@ -0,0 +1,184 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.dto.PageCursor;
+import com.ak.Rexsphere.entity.Feed;
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.repository.FeedRepository;
+import com.ak.Rexsphere.util.AfterCommit;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hot window of the newest feed entries: one bounded ring buffer per category plus a global
+ * one, loaded at startup and kept current by write-through from {@link FeedService#savetoFeed}.
+ * Pages that fall inside a window are served without touching the database. Memory is bounded
+ * by global-capacity + category-capacity * number of categories entries.
+ */
+@Service
+public class RecentFeedCache {
+
+    private static final Comparator<Feed> NEWEST_FIRST = Comparator.comparing(Feed::getCreatedAt)
+            .thenComparing(Feed::getId)
+            .reversed();
+
+    @Autowired
+    private FeedRepository feedRepository;
+
+    private final RingBuffer global;
+    private final Map<Category, RingBuffer> byCategory = new EnumMap<>(Category.class);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile boolean ready;
+
+    public RecentFeedCache(@Value("${feed.cache.global-capacity:500}") int globalCapacity,
+                           @Value("${feed.cache.category-capacity:200}") int categoryCapacity,
+                           MeterRegistry meterRegistry) {
+        this.global = new RingBuffer(globalCapacity);
+        for (Category category : Category.values()) {
+            byCategory.put(category, new RingBuffer(categoryCapacity));
+        }
+
+        FunctionCounter.builder("feed.cache.requests", hits, LongAdder::sum).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("feed.cache.requests", misses, LongAdder::sum).tag("result", "miss").register(meterRegistry);
+        Gauge.builder("feed.cache.entries", this, RecentFeedCache::entryCount).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        load(global, feedRepository.findByOrderByCreatedAtDescIdDesc(Limit.of(global.capacity)));
+        byCategory.forEach((category, ring) ->
+                load(ring, feedRepository.findByCategoryOrderByCreatedAtDescIdDesc(category, Limit.of(ring.capacity))));
+        ready = true;
+    }
+
+    /** Adds a persisted entry, after commit when called inside a transaction. */
+    public void add(Feed feed) {
+        AfterCommit.run(() -> insert(feed));
+    }
+
+    /**
+     * Returns up to {@code limit} entries older than {@code after} (or the newest entries when
+     * {@code after} is null), or null when the window cannot answer and the caller must query.
+     */
+    public List<Feed> page(Category category, PageCursor after, int limit) {
+        List<Feed> page = ready ? (category == null ? global : byCategory.get(category)).page(after, limit) : null;
+        (page != null ? hits : misses).increment();
+        return page;
+    }
+
+    private void insert(Feed feed) {
+        global.insert(feed);
+        byCategory.get(feed.getCategory()).insert(feed);
+    }
+
+    private static void load(RingBuffer ring, List<Feed> newest) {
+        newest.forEach(ring::insert);
+        ring.markComplete(newest.size() < ring.capacity);
+    }
+
+    private double entryCount() {
+        return global.size() + byCategory.values().stream().mapToInt(RingBuffer::size).sum();
+    }
+
+    /**
+     * Fixed-capacity buffer ordered newest first, always holding the newest rows of its slice.
+     * New entries normally land at the head in O(1); the rare out-of-order entry is shifted into
+     * place. When full, the oldest entry is evicted.
+     */
+    private static final class RingBuffer {
+        private final int capacity;
+        private final Feed[] slots;
+        private int head;
+        private int size;
+        // True while the buffer holds every row of its slice of the feed table.
+        private boolean complete;
+
+        private RingBuffer(int capacity) {
+            this.capacity = capacity;
+            this.slots = new Feed[capacity];
+        }
+
+        private synchronized void insert(Feed feed) {
+            int position = search(feed);
+            if (position < size && NEWEST_FIRST.compare(get(position), feed) == 0) {
+                return;
+            }
+            if (size == capacity) {
+                complete = false;
+                if (position == size) {
+                    return;
+                }
+            } else {
+                size++;
+            }
+            head = (head - 1 + capacity) % capacity;
+            for (int i = 0; i < position; i++) {
+                set(i, get(i + 1));
+            }
+            set(position, feed);
+        }
+
+        private synchronized List<Feed> page(PageCursor after, int limit) {
+            int from = 0;
+            if (after != null) {
+                Feed probe = new Feed();
+                probe.setCreatedAt(after.getCreatedAt());
+                probe.setId(after.getId());
+                from = search(probe);
+                if (from < size && NEWEST_FIRST.compare(get(from), probe) == 0) {
+                    from++;
+                }
+            }
+            int to = Math.min(size, from + limit);
+            if (to - from < limit && !complete) {
+                return null;
+            }
+            List<Feed> page = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                page.add(get(i));
+            }
+            return page;
+        }
+
+        private synchronized void markComplete(boolean complete) {
+            this.complete = complete && size < capacity;
+        }
+
+        private synchronized int size() {
+            return size;
+        }
+
+        /** Index of the first entry not newer than {@code feed}. */
+        private int search(Feed feed) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (NEWEST_FIRST.compare(get(mid), feed) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private Feed get(int index) {
+            return slots[(head + index) % capacity];
+        }
+
+        private void set(int index, Feed feed) {
+            slots[(head + index) % capacity] = feed;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.dto.AuthTokens;
+import com.ak.Rexsphere.entity.RefreshSession;
+import com.ak.Rexsphere.entity.User;
+import com.ak.Rexsphere.repository.RefreshSessionRepository;
+import com.ak.Rexsphere.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * Rotating refresh tokens. Each login opens a {@link RefreshSession}; every refresh trades the
+ * session's current token for a new access token and the next-generation refresh token, with
+ * no password check. Presenting a token that was already rotated means it leaked, so the whole
+ * session is revoked. The one exception is the token just replaced, within
+ * {@code jwt.refresh.reuse-grace-seconds} of its rotation: two tabs, or a page refreshing twice,
+ * send the same cookie concurrently, and the call that loses the race is given the session's
+ * current token instead.
+ */
+@Service
+public class RefreshTokenService {
+
+    @Autowired
+    private RefreshSessionRepository refreshSessionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JWTService jwtService;
+
+    private final Duration ttl;
+    private final Duration reuseGrace;
+
+    public RefreshTokenService(@Value("${jwt.refresh.ttl-days:14}") long ttlDays,
+                               @Value("${jwt.refresh.reuse-grace-seconds:10}") long reuseGraceSeconds) {
+        this.ttl = Duration.ofDays(ttlDays);
+        this.reuseGrace = Duration.ofSeconds(reuseGraceSeconds);
+    }
+
+    public AuthTokens issue(Long userId, String userName) {
+        RefreshSession session = new RefreshSession(UUID.randomUUID().toString(), userId, LocalDateTime.now().plus(ttl));
+        refreshSessionRepository.save(session);
+        return tokens(userId, userName, session.getId(), session.getGeneration(), session.getExpiresAt());
+    }
+
+    public AuthTokens rotate(String refreshToken) {
+        JWTService.RefreshClaims claims = jwtService.parseRefreshToken(refreshToken);
+        if (claims == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+        if (refreshSessionRepository.advance(claims.sessionId(), claims.generation(), now, expiresAt) == 0) {
+            RefreshSession session = refreshSessionRepository.findById(claims.sessionId()).orElse(null);
+            if (!justRotatedFrom(session, claims.generation(), now)) {
+                refreshSessionRepository.deleteById(claims.sessionId());
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token revoked");
+            }
+            expiresAt = session.getExpiresAt();
+        }
+
+        User user = userRepository.findById(claims.userId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not found"));
+        return tokens(user.getId(), user.getUserName(), claims.sessionId(), claims.generation() + 1, expiresAt);
+    }
+
+    private boolean justRotatedFrom(RefreshSession session, int generation, LocalDateTime now) {
+        return session != null
+                && session.getGeneration() == generation + 1
+                && session.getRotatedAt() != null
+                && session.getRotatedAt().isAfter(now.minus(reuseGrace))
+                && session.getExpiresAt().isAfter(now);
+    }
+
+    /** Ends the session the token belongs to; unknown or invalid tokens are ignored. */
+    public void revoke(String refreshToken) {
+        JWTService.RefreshClaims claims = jwtService.parseRefreshToken(refreshToken);
+        if (claims != null) {
+            refreshSessionRepository.deleteById(claims.sessionId());
+        }
+    }
+
+    /** Ends every session of a user, e.g. after a password change. */
+    public void revokeAll(Long userId) {
+        refreshSessionRepository.deleteByUserId(userId);
+    }
+
+    @Scheduled(cron = "${jwt.refresh.purge-cron:0 30 4 * * *}")
+    public void purgeExpired() {
+        refreshSessionRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private AuthTokens tokens(Long userId, String userName, String sessionId, int generation, LocalDateTime expiresAt) {
+        String refreshToken = jwtService.generateRefreshToken(userId, sessionId, generation,
+                expiresAt.atZone(ZoneId.systemDefault()).toInstant());
+        return new AuthTokens(jwtService.generateToken(userName, userId), refreshToken, ttl);
+    }
+}
@@ -0,0 +1,415 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.enums.FeedType;
+import com.ak.Rexsphere.enums.SearchType;
+import com.ak.Rexsphere.repository.AskRepository;
+import com.ak.Rexsphere.repository.CommentRepository;
+import com.ak.Rexsphere.repository.RecRepository;
+import com.ak.Rexsphere.repository.projection.CommentSearchSource;
+import com.ak.Rexsphere.repository.projection.PostSearchSource;
+import com.ak.Rexsphere.util.AfterCommit;
+import com.ak.Rexsphere.util.SearchAnalyzer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * In-memory inverted index over ask questions, rec contents and comments, ranked with BM25.
+ * Documents get increasing internal ids, so every posting list stays sorted by doc and a query
+ * merges its lists in one pass, keeping only a top-k heap. Deletes leave tombstones that are
+ * compacted away once they make up a quarter of the index. The index is rebuilt from the
+ * database at startup and kept current after commit by the ask, rec and comment services.
+ */
+@Service
+public class SearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndex.class);
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int LOAD_BATCH_SIZE = 2000;
+    private static final int MIN_COMPACTION_TOMBSTONES = 1024;
+    private static final SearchType[] TYPES = SearchType.values();
+
+    @Autowired
+    private AskRepository askRepository;
+
+    @Autowired
+    private RecRepository recRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Long, Integer> docsByKey = new HashMap<>();
+    // Comments are filtered by their post's category, looked up here at query time.
+    private final Map<Long, Category> postCategories = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] keys = new long[1024];
+    private long[] postKeys = new long[1024];
+    private int[] lengths = new int[1024];
+    private int docCount;
+    private int deletedCount;
+    private long liveLength;
+
+    // While the startup rebuild runs, keys removed by live traffic must not be re-added by it.
+    private boolean loading;
+    private final Set<Long> removedWhileLoading = new HashSet<>();
+
+    private final Timer queryTimer;
+
+    public SearchIndex(MeterRegistry meterRegistry) {
+        this.queryTimer = Timer.builder("search.query").register(meterRegistry);
+        Gauge.builder("search.index.documents", this, index -> index.read(() -> index.docCount - index.deletedCount))
+                .register(meterRegistry);
+        Gauge.builder("search.index.terms", this, index -> index.read(index.dictionary::size)).register(meterRegistry);
+    }
+
+    public record Match(SearchType type, Long id, float score) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        write(() -> loading = true);
+        try {
+            int asks = load(after -> askRepository.findSearchSourcesAfter(after, Limit.of(LOAD_BATCH_SIZE)),
+                    PostSearchSource::getId, row -> postDocument(SearchType.ASK, row.getId(), row.getCategory(), row.getText()));
+            int recs = load(after -> recRepository.findSearchSourcesAfter(after, Limit.of(LOAD_BATCH_SIZE)),
+                    PostSearchSource::getId, row -> postDocument(SearchType.REC, row.getId(), row.getCategory(), row.getText()));
+            int comments = load(after -> commentRepository.findSearchSourcesAfter(after, Limit.of(LOAD_BATCH_SIZE)),
+                    CommentSearchSource::getId, row -> commentDocument(row.getId(), row.getAskId(), row.getRecId(), row.getText()));
+            log.info("Indexed {} asks, {} recs and {} comments for search in {} ms", asks, recs, comments,
+                    (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            write(() -> {
+                loading = false;
+                removedWhileLoading.clear();
+            });
+        }
+    }
+
+    public void addPost(FeedType type, Long id, Category category, String text) {
+        AfterCommit.run(() -> {
+            Document document = postDocument(SearchType.valueOf(type.name()), id, category, text);
+            write(() -> insert(document));
+        });
+    }
+
+    public void removePost(FeedType type, Long id) {
+        AfterCommit.run(() -> write(() -> remove(key(SearchType.valueOf(type.name()), id))));
+    }
+
+    /** Adds a comment, or replaces it when it is already indexed. */
+    public void addComment(Long id, Long askId, Long recId, String text) {
+        AfterCommit.run(() -> {
+            Document document = commentDocument(id, askId, recId, text);
+            write(() -> insert(document));
+        });
+    }
+
+    public void removeComments(Collection<Long> ids) {
+        AfterCommit.run(() -> write(() -> ids.forEach(id -> remove(key(SearchType.COMMENT, id)))));
+    }
+
+    /**
+     * Returns the best {@code limit} matches for {@code query}, highest score first. A query word
+     * ending in '*' matches every term it prefixes. {@code type} and {@code category} are optional
+     * filters; a comment's category is its post's.
+     */
+    public List<Match> search(String query, SearchType type, Category category, int limit) {
+        List<QueryTerm> terms = parse(query);
+        return queryTimer.record(() -> read(() -> rank(terms, type, category, limit)));
+    }
+
+    private List<Match> rank(List<QueryTerm> terms, SearchType type, Category category, int limit) {
+        Map<String, Postings> matched = new LinkedHashMap<>();
+        for (QueryTerm term : terms) {
+            if (term.prefix()) {
+                int expansions = 0;
+                for (Map.Entry<String, Postings> entry : dictionary.subMap(term.text(), term.text() + Character.MAX_VALUE).entrySet()) {
+                    if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                        break;
+                    }
+                    matched.put(entry.getKey(), entry.getValue());
+                }
+            } else {
+                Postings postings = dictionary.get(term.text());
+                if (postings != null) {
+                    matched.put(term.text(), postings);
+                }
+            }
+        }
+        int live = docCount - deletedCount;
+        if (matched.isEmpty() || live == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        Postings[] lists = matched.values().toArray(new Postings[0]);
+        float[] idf = new float[lists.length];
+        int[] cursors = new int[lists.length];
+        for (int i = 0; i < lists.length; i++) {
+            int df = Math.min(lists[i].size, live);
+            idf[i] = (float) Math.log(1 + (live - df + 0.5) / (df + 0.5));
+        }
+        float averageLength = Math.max(1f, (float) liveLength / live);
+
+        // Min-heap on (score, doc): its head is the weakest of the current top matches.
+        PriorityQueue<long[]> top = new PriorityQueue<>(limit + 1, (a, b) -> compareScored(a[0], a[1], b[0], b[1]));
+        while (true) {
+            int doc = Integer.MAX_VALUE;
+            for (int i = 0; i < lists.length; i++) {
+                if (cursors[i] < lists[i].size) {
+                    doc = Math.min(doc, lists[i].docs[cursors[i]]);
+                }
+            }
+            if (doc == Integer.MAX_VALUE) {
+                break;
+            }
+            boolean eligible = !deleted.get(doc) && matches(doc, type, category);
+            float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+            float score = 0;
+            for (int i = 0; i < lists.length; i++) {
+                if (cursors[i] < lists[i].size && lists[i].docs[cursors[i]] == doc) {
+                    int tf = lists[i].freqs[cursors[i]];
+                    score += idf[i] * tf * (K1 + 1) / (tf + norm);
+                    cursors[i]++;
+                }
+            }
+            if (eligible) {
+                long scoreBits = Float.floatToIntBits(score);
+                if (top.size() < limit) {
+                    top.add(new long[]{scoreBits, doc});
+                } else if (compareScored(scoreBits, doc, top.peek()[0], top.peek()[1]) > 0) {
+                    top.poll();
+                    top.add(new long[]{scoreBits, doc});
+                }
+            }
+        }
+
+        List<Match> ranked = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            long[] scored = top.poll();
+            long key = keys[(int) scored[1]];
+            ranked.add(new Match(TYPES[(int) (key & 3)], key >>> 2, Float.intBitsToFloat((int) scored[0])));
+        }
+        Collections.reverse(ranked);
+        return ranked;
+    }
+
+    // Higher score wins; on equal scores the later document, usually the newer item, wins.
+    private static int compareScored(long scoreA, long docA, long scoreB, long docB) {
+        int byScore = Float.compare(Float.intBitsToFloat((int) scoreA), Float.intBitsToFloat((int) scoreB));
+        return byScore != 0 ? byScore : Long.compare(docA, docB);
+    }
+
+    private boolean matches(int doc, SearchType type, Category category) {
+        if (type != null && TYPES[(int) (keys[doc] & 3)] != type) {
+            return false;
+        }
+        return category == null || postCategories.get(postKeys[doc]) == category;
+    }
+
+    private static List<QueryTerm> parse(String query) {
+        List<QueryTerm> terms = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            if (word.endsWith("*")) {
+                List<String> tokens = SearchAnalyzer.tokens(word);
+                for (int i = 0; i < tokens.size(); i++) {
+                    boolean last = i == tokens.size() - 1;
+                    if (last && tokens.get(i).length() >= MIN_PREFIX_LENGTH) {
+                        terms.add(new QueryTerm(tokens.get(i), true));
+                    } else if (!SearchAnalyzer.isStopWord(tokens.get(i))) {
+                        terms.add(new QueryTerm(tokens.get(i), false));
+                    }
+                }
+            } else {
+                SearchAnalyzer.terms(word).forEach(term -> terms.add(new QueryTerm(term, false)));
+            }
+        }
+        return terms;
+    }
+
+    private <T> int load(Function<Long, List<T>> fetch, ToLongFunction<T> idOf, Function<T, Document> analyze) {
+        int loaded = 0;
+        long after = 0;
+        CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+        while (true) {
+            // The next batch is read while the previous one is analyzed across the common pool.
+            List<T> batch = fetch.apply(after);
+            pending.join();
+            if (batch.isEmpty()) {
+                return loaded;
+            }
+            after = idOf.applyAsLong(batch.get(batch.size() - 1));
+            loaded += batch.size();
+            pending = CompletableFuture.runAsync(() -> {
+                List<Document> documents = batch.parallelStream().map(analyze).toList();
+                write(() -> documents.forEach(document -> {
+                    if (!docsByKey.containsKey(document.key()) && !removedWhileLoading.contains(document.key())) {
+                        insert(document);
+                    }
+                }));
+            });
+        }
+    }
+
+    private static Document postDocument(SearchType type, Long id, Category category, String text) {
+        long key = key(type, id);
+        return new Document(key, key, category, SearchAnalyzer.termFrequencies(text));
+    }
+
+    private static Document commentDocument(Long id, Long askId, Long recId, String text) {
+        long postKey = askId != null ? key(SearchType.ASK, askId) : key(SearchType.REC, recId);
+        return new Document(key(SearchType.COMMENT, id), postKey, null, SearchAnalyzer.termFrequencies(text));
+    }
+
+    private static long key(SearchType type, long id) {
+        return id << 2 | type.ordinal();
+    }
+
+    private void insert(Document document) {
+        Integer existing = docsByKey.get(document.key());
+        if (existing != null) {
+            delete(existing);
+        }
+        if (document.category() != null) {
+            postCategories.put(document.key(), document.category());
+        }
+        int doc = docCount++;
+        if (doc == keys.length) {
+            keys = Arrays.copyOf(keys, doc * 2);
+            postKeys = Arrays.copyOf(postKeys, doc * 2);
+            lengths = Arrays.copyOf(lengths, doc * 2);
+        }
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : document.frequencies().entrySet()) {
+            dictionary.computeIfAbsent(entry.getKey(), term -> new Postings()).add(doc, entry.getValue());
+            length += entry.getValue();
+        }
+        keys[doc] = document.key();
+        postKeys[doc] = document.postKey();
+        lengths[doc] = length;
+        liveLength += length;
+        docsByKey.put(document.key(), doc);
+        compactIfNeeded();
+    }
+
+    private void remove(long key) {
+        if (loading) {
+            removedWhileLoading.add(key);
+        }
+        postCategories.remove(key);
+        Integer doc = docsByKey.get(key);
+        if (doc != null) {
+            delete(doc);
+            compactIfNeeded();
+        }
+    }
+
+    private void delete(int doc) {
+        deleted.set(doc);
+        deletedCount++;
+        liveLength -= lengths[doc];
+        docsByKey.remove(keys[doc]);
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount < MIN_COMPACTION_TOMBSTONES || deletedCount * 4 < docCount) {
+            return;
+        }
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                remap[doc] = -1;
+            } else {
+                remap[doc] = next;
+                keys[next] = keys[doc];
+                postKeys[next] = postKeys[doc];
+                lengths[next] = lengths[doc];
+                docsByKey.put(keys[next], next);
+                next++;
+            }
+        }
+        dictionary.values().removeIf(postings -> postings.remap(remap) == 0);
+        deleted.clear();
+        docCount = next;
+        deletedCount = 0;
+    }
+
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record QueryTerm(String text, boolean prefix) {
+    }
+
+    private record Document(long key, long postKey, Category category, Map<String, Integer> frequencies) {
+    }
+
+    /** Parallel growable arrays of doc ids, ascending, and the term's frequency in each doc. */
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private int[] freqs = new int[2];
+        private int size;
+
+        private void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        /** Renumbers docs in place, dropping removed ones; returns the new size. */
+        private int remap(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    freqs[kept] = freqs[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.SearchHit;
+
+public interface SearchService {
+
+    CursorPage<SearchHit> search(String query, String type, String category, String cursor, int size);
+}
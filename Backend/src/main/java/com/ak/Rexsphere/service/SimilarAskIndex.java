@@ -0,0 +1,319 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.repository.AskRepository;
+import com.ak.Rexsphere.repository.projection.PostSearchSource;
+import com.ak.Rexsphere.util.AfterCommit;
+import com.ak.Rexsphere.util.MinHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Locality-sensitive hashing over MinHash signatures of ask questions, for finding re-asked
+ * questions. Each signature is cut into {@link #BANDS} bands of {@link #ROWS} values and every band
+ * is hashed, together with the ask's category, into one open-addressing table; asks sharing any
+ * band bucket are candidates. A pair with Jaccard similarity s shares a bucket with probability
+ * 1 - (1 - s^2)^16: 0.99 at the default threshold of 0.5, 0.78 at 0.3 and 0.15 at 0.1, so near
+ * duplicates are rarely missed and the extra candidates are cheap to reject. Candidates are scored
+ * from the low byte of each signature value, so an ask costs about 360 bytes and a lookup probes
+ * one short run of slots per band. Rebuilt at startup and kept current after commit by the ask
+ * service.
+ */
+@Service
+public class SimilarAskIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SimilarAskIndex.class);
+
+    private static final int BANDS = 16;
+    private static final int ROWS = MinHash.HASHES / BANDS;
+    private static final int LOAD_BATCH_SIZE = 2000;
+    private static final int MIN_COMPACTION_TOMBSTONES = 1024;
+    private static final int EMPTY = -1;
+    // Chance that two unrelated low bytes agree, corrected for in the similarity estimate.
+    private static final float BYTE_COLLISION = 1f / 256;
+
+    @Autowired
+    private AskRepository askRepository;
+
+    private final float minSimilarity;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> docsByAsk = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] askIds = new long[1024];
+    private byte[] categories = new byte[1024];
+    private byte[] sketches = new byte[1024 * MinHash.HASHES];
+    private int[] bandKeys = new int[1024 * BANDS];
+    private int docCount;
+    private int deletedCount;
+
+    // Multimap from band key to doc; a slot is free when its doc is EMPTY. Tombstoned docs keep
+    // their slots until compaction rebuilds the table.
+    private int[] slotKeys = new int[1 << 12];
+    private int[] slotDocs = emptySlots(1 << 12);
+    private int slotsUsed;
+
+    // While the startup rebuild runs, asks removed by live traffic must not be re-added by it.
+    private boolean loading;
+    private final Set<Long> removedWhileLoading = new HashSet<>();
+
+    private final Timer queryTimer;
+    private final Counter duplicates;
+
+    public SimilarAskIndex(@Value("${ask.similar.min-similarity:0.5}") float minSimilarity, MeterRegistry meterRegistry) {
+        this.minSimilarity = minSimilarity;
+        this.queryTimer = Timer.builder("ask.similar.query").register(meterRegistry);
+        this.duplicates = Counter.builder("ask.similar.duplicates").register(meterRegistry);
+        Gauge.builder("ask.similar.asks", this, index -> index.read(() -> index.docCount - index.deletedCount))
+                .register(meterRegistry);
+    }
+
+    public record Match(Long askId, float similarity) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        write(() -> loading = true);
+        try {
+            int loaded = 0;
+            long after = 0;
+            List<PostSearchSource> batch;
+            while (!(batch = askRepository.findSearchSourcesAfter(after, Limit.of(LOAD_BATCH_SIZE))).isEmpty()) {
+                List<Document> documents = batch.parallelStream()
+                        .map(row -> new Document(row.getId(), row.getCategory(), MinHash.signature(row.getText())))
+                        .filter(document -> document.signature() != null)
+                        .toList();
+                write(() -> documents.forEach(document -> {
+                    if (!docsByAsk.containsKey(document.askId()) && !removedWhileLoading.contains(document.askId())) {
+                        insert(document);
+                    }
+                }));
+                after = batch.get(batch.size() - 1).getId();
+                loaded += batch.size();
+            }
+            log.info("Indexed {} asks for similarity in {} ms", loaded, (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            write(() -> {
+                loading = false;
+                removedWhileLoading.clear();
+            });
+        }
+    }
+
+    /** Indexes a new ask; {@code signature} may be null for questions without terms. */
+    public void add(Long askId, Category category, int[] signature) {
+        if (signature == null) {
+            return;
+        }
+        Document document = new Document(askId, category, signature);
+        AfterCommit.run(() -> write(() -> {
+            if (!find(document.bandKeys(), document.sketch(), (byte) category.ordinal(), EMPTY, 1).isEmpty()) {
+                duplicates.increment();
+            }
+            insert(document);
+        }));
+    }
+
+    public void remove(Long askId) {
+        AfterCommit.run(() -> write(() -> {
+            if (loading) {
+                removedWhileLoading.add(askId);
+            }
+            Integer doc = docsByAsk.remove(askId);
+            if (doc != null) {
+                deleted.set(doc);
+                deletedCount++;
+                compactIfNeeded();
+            }
+        }));
+    }
+
+    /** Indexed asks in {@code category} likely to be re-asks of a question with this signature, most similar first. */
+    public List<Match> similarTo(int[] signature, Category category, int limit) {
+        if (signature == null) {
+            return List.of();
+        }
+        Document document = new Document(null, category, signature);
+        return queryTimer.record(() -> read(() ->
+                find(document.bandKeys(), document.sketch(), (byte) category.ordinal(), EMPTY, limit)));
+    }
+
+    /** Like {@link #similarTo}, for an indexed ask; empty when the ask is not indexed. */
+    public List<Match> similarToAsk(Long askId, int limit) {
+        return queryTimer.record(() -> read(() -> {
+            Integer doc = docsByAsk.get(askId);
+            if (doc == null) {
+                return List.of();
+            }
+            return find(Arrays.copyOfRange(bandKeys, doc * BANDS, (doc + 1) * BANDS),
+                    Arrays.copyOfRange(sketches, doc * MinHash.HASHES, (doc + 1) * MinHash.HASHES), categories[doc], doc, limit);
+        }));
+    }
+
+    private List<Match> find(int[] keys, byte[] sketch, byte category, int excludedDoc, int limit) {
+        List<Match> matches = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        int mask = slotKeys.length - 1;
+        for (int key : keys) {
+            for (int slot = key & mask; slotDocs[slot] != EMPTY; slot = (slot + 1) & mask) {
+                int doc = slotDocs[slot];
+                if (slotKeys[slot] != key || doc == excludedDoc || deleted.get(doc) || categories[doc] != category
+                        || !seen.add(doc)) {
+                    continue;
+                }
+                float similarity = estimate(sketch, doc);
+                if (similarity >= minSimilarity) {
+                    matches.add(new Match(askIds[doc], similarity));
+                }
+            }
+        }
+        matches.sort(Comparator.comparing(Match::similarity).thenComparing(Match::askId).reversed());
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private float estimate(byte[] sketch, int doc) {
+        int agreeing = 0;
+        int offset = doc * MinHash.HASHES;
+        for (int i = 0; i < MinHash.HASHES; i++) {
+            if (sketches[offset + i] == sketch[i]) {
+                agreeing++;
+            }
+        }
+        float observed = (float) agreeing / MinHash.HASHES;
+        return Math.max(0f, (observed - BYTE_COLLISION) / (1 - BYTE_COLLISION));
+    }
+
+    private void insert(Document document) {
+        int doc = docCount++;
+        if (doc == askIds.length) {
+            askIds = Arrays.copyOf(askIds, doc * 2);
+            categories = Arrays.copyOf(categories, doc * 2);
+            sketches = Arrays.copyOf(sketches, doc * 2 * MinHash.HASHES);
+            bandKeys = Arrays.copyOf(bandKeys, doc * 2 * BANDS);
+        }
+        askIds[doc] = document.askId();
+        categories[doc] = (byte) document.category().ordinal();
+        System.arraycopy(document.sketch(), 0, sketches, doc * MinHash.HASHES, MinHash.HASHES);
+        System.arraycopy(document.bandKeys(), 0, bandKeys, doc * BANDS, BANDS);
+        docsByAsk.put(document.askId(), doc);
+
+        if ((slotsUsed + BANDS) * 2 > slotKeys.length) {
+            rebuildTable(slotKeys.length * 2);
+        } else {
+            addSlots(doc);
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deletedCount < MIN_COMPACTION_TOMBSTONES || deletedCount * 4 < docCount) {
+            return;
+        }
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (!deleted.get(doc)) {
+                askIds[next] = askIds[doc];
+                categories[next] = categories[doc];
+                System.arraycopy(sketches, doc * MinHash.HASHES, sketches, next * MinHash.HASHES, MinHash.HASHES);
+                System.arraycopy(bandKeys, doc * BANDS, bandKeys, next * BANDS, BANDS);
+                docsByAsk.put(askIds[next], next);
+                next++;
+            }
+        }
+        deleted.clear();
+        docCount = next;
+        deletedCount = 0;
+        rebuildTable(slotKeys.length);
+    }
+
+    private void rebuildTable(int capacity) {
+        while (capacity < (docCount - deletedCount) * BANDS * 2) {
+            capacity *= 2;
+        }
+        slotKeys = new int[capacity];
+        slotDocs = emptySlots(capacity);
+        slotsUsed = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (!deleted.get(doc)) {
+                addSlots(doc);
+            }
+        }
+    }
+
+    private void addSlots(int doc) {
+        int mask = slotKeys.length - 1;
+        for (int band = 0; band < BANDS; band++) {
+            int key = bandKeys[doc * BANDS + band];
+            int slot = key & mask;
+            while (slotDocs[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slotKeys[slot] = key;
+            slotDocs[slot] = doc;
+            slotsUsed++;
+        }
+    }
+
+    private static int[] emptySlots(int capacity) {
+        int[] slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        return slots;
+    }
+
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record Document(Long askId, Category category, int[] signature) {
+
+        /** Band hashes, salted with the category so that only same-category asks collide. */
+        private int[] bandKeys() {
+            int[] keys = new int[BANDS];
+            for (int band = 0; band < BANDS; band++) {
+                long hash = MinHash.mix((long) band << 8 | category.ordinal());
+                for (int row = 0; row < ROWS; row++) {
+                    hash = MinHash.mix(hash + signature[band * ROWS + row]);
+                }
+                keys[band] = (int) hash;
+            }
+            return keys;
+        }
+
+        private byte[] sketch() {
+            byte[] sketch = new byte[MinHash.HASHES];
+            for (int i = 0; i < MinHash.HASHES; i++) {
+                sketch[i] = (byte) signature[i];
+            }
+            return sketch;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.dto.TrendingResponse;
+
+public interface TrendingService {
+
+    TrendingResponse getTrending(String window, int size);
+}
@@ -0,0 +1,289 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.dto.TrendingEntry;
+import com.ak.Rexsphere.dto.TrendingResponse;
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.enums.FeedType;
+import com.ak.Rexsphere.enums.TrendingWindow;
+import com.ak.Rexsphere.repository.AskRepository;
+import com.ak.Rexsphere.repository.RecRepository;
+import com.ak.Rexsphere.repository.projection.PostSearchSource;
+import com.ak.Rexsphere.util.AfterCommit;
+import com.ak.Rexsphere.util.CountMinSketch;
+import com.ak.Rexsphere.util.SpaceSaving;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Counts activity per category and hashtag in rotating time buckets, for every
+ * {@link TrendingWindow}. A post counts once when created and once per user who upvotes it, so
+ * taking an upvote back and giving it again adds nothing. Each bucket holds
+ * exact per-category counters, a Count-Min sketch of hashtag counts and a Space-Saving summary
+ * of its most frequent hashtags, so memory is fixed no matter how many posts or tags there are.
+ * A window is scored against the window of equal length just before it, which is why every
+ * ring keeps twice as many buckets as its window spans.
+ */
+@Service
+public class TrendingTracker {
+
+    private static final int SKETCH_WIDTH = 8192;
+    private static final int SKETCH_DEPTH = 4;
+    private static final int HEAVY_HITTERS = 256;
+    private static final int POST_CACHE_SIZE = 10_000;
+    private static final int UPVOTE_CACHE_SIZE = 200_000;
+    private static final Pattern HASHTAG = Pattern.compile("#(\\p{L}[\\p{L}\\p{N}_]{0,49})");
+    private static final Category[] CATEGORIES = Category.values();
+
+    @Autowired
+    private AskRepository askRepository;
+
+    @Autowired
+    private RecRepository recRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<TrendingWindow, Bucket[]> rings = new EnumMap<>(TrendingWindow.class);
+
+    // Votes carry only the post id; tags of recently created or voted posts are kept here.
+    private final Map<PostKey, PostTags> recentPosts = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PostKey, PostTags> eldest) {
+            return size() > POST_CACHE_SIZE;
+        }
+    };
+
+    // Upvotes already counted, with when. Past the longest span any window is compared over, an
+    // earlier upvote no longer shows, so the entry may go; the cache is bounded either way.
+    private final long upvoteMemoryMillis;
+    private final Map<UpvoteKey, Long> countedUpvotes = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UpvoteKey, Long> eldest) {
+            return size() > UPVOTE_CACHE_SIZE;
+        }
+    };
+
+    public TrendingTracker() {
+        this.upvoteMemoryMillis = Arrays.stream(TrendingWindow.values())
+                .mapToLong(window -> window.getBucketMillis() * window.getBuckets() * 2)
+                .max()
+                .orElse(0);
+        for (TrendingWindow window : TrendingWindow.values()) {
+            Bucket[] ring = new Bucket[window.getBuckets() * 2];
+            for (int i = 0; i < ring.length; i++) {
+                ring[i] = new Bucket();
+            }
+            rings.put(window, ring);
+        }
+    }
+
+    public void recordPost(FeedType type, Long id, Category category, String text) {
+        PostTags tags = new PostTags(category, hashtags(text));
+        AfterCommit.run(() -> {
+            synchronized (recentPosts) {
+                recentPosts.put(new PostKey(type, id), tags);
+            }
+            record(tags, System.currentTimeMillis());
+        });
+    }
+
+    public void recordUpvote(Long userId, FeedType type, Long id) {
+        AfterCommit.run(() -> {
+            long now = System.currentTimeMillis();
+            if (!firstUpvote(new UpvoteKey(userId, type, id), now)) {
+                return;
+            }
+            PostTags tags = tagsOf(new PostKey(type, id));
+            if (tags != null) {
+                record(tags, now);
+            }
+        });
+    }
+
+    /** Up to {@code size} categories and hashtags whose activity rose the most, fastest first. */
+    public TrendingResponse getTrending(TrendingWindow window, int size) {
+        long now = System.currentTimeMillis();
+        return read(() -> {
+            Bucket[] ring = rings.get(window);
+            long current = now / window.getBucketMillis();
+            long[] categoryCounts = new long[CATEGORIES.length];
+            long[] previousCategoryCounts = new long[CATEGORIES.length];
+            List<Bucket> buckets = new ArrayList<>();
+            List<Bucket> previousBuckets = new ArrayList<>();
+            Set<String> candidates = new HashSet<>();
+            for (int age = 0; age < ring.length; age++) {
+                long epoch = current - age;
+                Bucket bucket = ring[slot(ring, epoch)];
+                if (bucket.epoch != epoch) {
+                    continue;
+                }
+                boolean inWindow = age < window.getBuckets();
+                long[] categoryTarget = inWindow ? categoryCounts : previousCategoryCounts;
+                for (int i = 0; i < categoryTarget.length; i++) {
+                    categoryTarget[i] += bucket.categories[i];
+                }
+                (inWindow ? buckets : previousBuckets).add(bucket);
+                if (inWindow) {
+                    candidates.addAll(bucket.heavyHitters.items());
+                }
+            }
+
+            List<TrendingEntry> categories = new ArrayList<>();
+            for (int i = 0; i < CATEGORIES.length; i++) {
+                addIfActive(categories, CATEGORIES[i].name(), categoryCounts[i], previousCategoryCounts[i]);
+            }
+            List<TrendingEntry> hashtags = new ArrayList<>();
+            for (String tag : candidates) {
+                long hash = hash(tag);
+                addIfActive(hashtags, tag, estimate(buckets, hash), estimate(previousBuckets, hash));
+            }
+            return new TrendingResponse(window, top(categories, size), top(hashtags, size));
+        });
+    }
+
+    // The sum of per-bucket estimates, which is never below the true count and never above the
+    // estimate of the buckets' merged sketch.
+    private static long estimate(List<Bucket> buckets, long hash) {
+        long count = 0;
+        for (Bucket bucket : buckets) {
+            count += bucket.hashtags.estimate(hash);
+        }
+        return count;
+    }
+
+    private void record(PostTags tags, long now) {
+        write(() -> {
+            for (Map.Entry<TrendingWindow, Bucket[]> ring : rings.entrySet()) {
+                long epoch = now / ring.getKey().getBucketMillis();
+                Bucket bucket = ring.getValue()[slot(ring.getValue(), epoch)];
+                if (bucket.epoch != epoch) {
+                    bucket.reset(epoch);
+                }
+                bucket.categories[tags.category().ordinal()]++;
+                for (String tag : tags.hashtags()) {
+                    bucket.hashtags.add(hash(tag), 1);
+                    bucket.heavyHitters.add(tag, 1);
+                }
+            }
+        });
+    }
+
+    private boolean firstUpvote(UpvoteKey key, long now) {
+        synchronized (countedUpvotes) {
+            Long counted = countedUpvotes.get(key);
+            if (counted != null && now - counted < upvoteMemoryMillis) {
+                return false;
+            }
+            countedUpvotes.remove(key);
+            countedUpvotes.put(key, now);
+            return true;
+        }
+    }
+
+    private PostTags tagsOf(PostKey key) {
+        synchronized (recentPosts) {
+            PostTags tags = recentPosts.get(key);
+            if (tags != null) {
+                return tags;
+            }
+        }
+        Optional<PostSearchSource> post = key.type() == FeedType.ASK
+                ? askRepository.findSearchSourceById(key.id())
+                : recRepository.findSearchSourceById(key.id());
+        return post.map(source -> {
+            PostTags tags = new PostTags(source.getCategory(), hashtags(source.getText()));
+            synchronized (recentPosts) {
+                recentPosts.put(key, tags);
+            }
+            return tags;
+        }).orElse(null);
+    }
+
+    // Rising activity scores highest, damped by the square root of the earlier count so that a
+    // jump from 0 to 5 beats a drift from 1000 to 1010.
+    private static void addIfActive(List<TrendingEntry> entries, String name, long count, long previousCount) {
+        if (count > 0) {
+            double score = (count - previousCount) / Math.sqrt(previousCount + 1.0);
+            entries.add(new TrendingEntry(name, count, previousCount, score));
+        }
+    }
+
+    private static List<TrendingEntry> top(List<TrendingEntry> entries, int size) {
+        entries.sort(Comparator.comparingDouble(TrendingEntry::getScore)
+                .thenComparingLong(TrendingEntry::getCount)
+                .reversed()
+                .thenComparing(TrendingEntry::getName));
+        return entries.size() > size ? List.copyOf(entries.subList(0, size)) : entries;
+    }
+
+    /** Distinct lower-cased hashtags of {@code text}, without the '#'. */
+    private static Set<String> hashtags(String text) {
+        Set<String> tags = new LinkedHashSet<>();
+        if (text != null) {
+            Matcher matcher = HASHTAG.matcher(text);
+            while (matcher.find()) {
+                tags.add(matcher.group(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        return tags;
+    }
+
+    // 64-bit FNV-1a, so sketch rows do not inherit String.hashCode collisions.
+    private static long hash(String tag) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < tag.length(); i++) {
+            hash = (hash ^ tag.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static int slot(Bucket[] ring, long epoch) {
+        return (int) Math.floorMod(epoch, (long) ring.length);
+    }
+
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record PostKey(FeedType type, Long id) {
+    }
+
+    private record UpvoteKey(Long userId, FeedType type, Long id) {
+    }
+
+    private record PostTags(Category category, Set<String> hashtags) {
+    }
+
+    private static final class Bucket {
+        private long epoch = Long.MIN_VALUE;
+        private final long[] categories = new long[CATEGORIES.length];
+        private final CountMinSketch hashtags = new CountMinSketch(SKETCH_WIDTH, SKETCH_DEPTH);
+        private final SpaceSaving<String> heavyHitters = new SpaceSaving<>(HEAVY_HITTERS);
+
+        private void reset(long epoch) {
+            this.epoch = epoch;
+            Arrays.fill(categories, 0);
+            hashtags.clear();
+            heavyHitters.clear();
+        }
+    }
+}
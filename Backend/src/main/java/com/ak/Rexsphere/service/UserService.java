@@ -1,19 +1,27 @@
 package com.ak.Rexsphere.service;
 
+import com.ak.Rexsphere.dto.AuthTokens;
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.UserProfile;
+import com.ak.Rexsphere.dto.UserSummary;
 import com.ak.Rexsphere.entity.User;
 import com.ak.Rexsphere.enums.Category;
 
 import java.util.List;
+import java.util.Set;
 
 public interface UserService {
-    User createUser(User user);
+    UserProfile createUser(User user);
     User getUserById(Long id);
-    User getUserByUserName(String userName);
-    List<User> getAllUsers();
-    User updateUser(Long id, User updatedUser);
+    UserProfile getUserProfile(Long id);
+    UserSummary getUserByUserName(String userName);
+    List<UserSummary> suggestUsers(String prefix, int size);
+    CursorPage<UserSummary> getAllUsers(String cursor, int size);
+    CursorPage<UserSummary> getUsersByCategory(String category, String cursor, int size);
+    UserProfile updateUser(Long id, User updatedUser);
     void updatePassword(String currentPassword, String updatedPassword);
     void deleteUser(Long id);
-    String verify(User user);
+    AuthTokens verify(User user);
     void updateProfilePictureUrl(Long id, String newImageUrl);
-    List<Category> getPreferredCategories(Long userId);
+    Set<Category> getPreferredCategories(Long userId);
 }
@@ -0,0 +1,325 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.repository.UserRepository;
+import com.ak.Rexsphere.repository.projection.UserNameEntry;
+import com.ak.Rexsphere.util.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory index of usernames for prefix completion. Names are kept sorted in one UTF-8 byte
+ * array with parallel offset and id arrays, twelve bytes of overhead per user on top of the name
+ * itself. Changes since the last rebuild of that array sit in a small sorted delta plus
+ * tombstones, and are merged into a fresh array once they outgrow a sixteenth of it. Order and
+ * matching ignore ASCII case, so completing a prefix is one binary search followed by a walk over
+ * at most {@code limit} names.
+ */
+@Service
+public class UsernameIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameIndex.class);
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int MIN_MERGE_SIZE = 4096;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Names names = Names.EMPTY;
+    private final BitSet removed = new BitSet();
+    private int removedCount;
+    private final TreeMap<byte[], Long> delta = new TreeMap<>(UsernameIndex::compare);
+
+    // While the startup load runs, names removed by live traffic must be dropped from its result.
+    private boolean loading;
+    private final List<byte[]> removedWhileLoading = new ArrayList<>();
+
+    private final Timer queryTimer;
+
+    public UsernameIndex(MeterRegistry meterRegistry) {
+        this.queryTimer = Timer.builder("user.suggest.query").register(meterRegistry);
+        Gauge.builder("user.suggest.names", this, index -> index.read(() -> index.names.size - index.removedCount + index.delta.size()))
+                .register(meterRegistry);
+    }
+
+    public record Completion(Long id, String userName) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        write(() -> loading = true);
+        try {
+            List<Map.Entry<byte[], Long>> entries = new ArrayList<>();
+            long after = 0;
+            List<UserNameEntry> batch;
+            while (!(batch = userRepository.findUserNamesAfter(after, Limit.of(LOAD_BATCH_SIZE))).isEmpty()) {
+                batch.forEach(row -> entries.add(Map.entry(encode(row.getUserName()), row.getId())));
+                after = batch.get(batch.size() - 1).getId();
+            }
+            entries.sort(Map.Entry.comparingByKey(UsernameIndex::compare));
+            Names loaded = Names.build(entries.iterator(), entries.stream().mapToInt(entry -> entry.getKey().length).sum(), entries.size());
+            write(() -> {
+                names = loaded;
+                removed.clear();
+                removedCount = 0;
+                removedWhileLoading.forEach(this::removeFromNames);
+                delta.keySet().forEach(this::removeFromNames);
+            });
+            log.info("Indexed {} usernames for suggestions in {} ms", entries.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            write(() -> {
+                loading = false;
+                removedWhileLoading.clear();
+                mergeIfNeeded();
+            });
+        }
+    }
+
+    public void add(Long id, String userName) {
+        byte[] name = encode(userName);
+        AfterCommit.run(() -> write(() -> {
+            removeFromNames(name);
+            delta.put(name, id);
+            mergeIfNeeded();
+        }));
+    }
+
+    public void remove(String userName) {
+        byte[] name = encode(userName);
+        AfterCommit.run(() -> write(() -> {
+            if (loading) {
+                removedWhileLoading.add(name);
+            }
+            delta.remove(name);
+            removeFromNames(name);
+            mergeIfNeeded();
+        }));
+    }
+
+    /** Up to {@code limit} usernames starting with {@code prefix}, ignoring ASCII case, in index order. */
+    public List<Completion> complete(String prefix, int limit) {
+        byte[] folded = encode(prefix);
+        byte[] lowest = folded.clone();
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(folded[i]);
+            // Upper case sorts first among names that differ only in case, so this bounds them all.
+            if (lowest[i] >= 'a' && lowest[i] <= 'z') {
+                lowest[i] -= 'a' - 'A';
+            }
+        }
+        return queryTimer.record(() -> read(() -> collect(lowest, folded, limit)));
+    }
+
+    private List<Completion> collect(byte[] lowest, byte[] folded, int limit) {
+        List<Completion> completions = new ArrayList<>(Math.min(limit, 64));
+        int position = names.lowerBound(lowest);
+        Iterator<Map.Entry<byte[], Long>> recent = delta.tailMap(lowest, true).entrySet().iterator();
+        Map.Entry<byte[], Long> nextRecent = recent.hasNext() ? recent.next() : null;
+        while (completions.size() < limit) {
+            position = removed.nextClearBit(position);
+            boolean fromNames = position < names.size && names.startsWith(position, folded);
+            boolean fromDelta = nextRecent != null && startsWith(nextRecent.getKey(), 0, nextRecent.getKey().length, folded);
+            if (fromDelta && (!fromNames || names.compareTo(position, nextRecent.getKey()) > 0)) {
+                completions.add(new Completion(nextRecent.getValue(), decode(nextRecent.getKey())));
+                nextRecent = recent.hasNext() ? recent.next() : null;
+            } else if (fromNames) {
+                completions.add(new Completion(names.ids[position], names.name(position)));
+                position++;
+            } else {
+                break;
+            }
+        }
+        return completions;
+    }
+
+    private void removeFromNames(byte[] name) {
+        int position = names.indexOf(name);
+        if (position >= 0 && !removed.get(position)) {
+            removed.set(position);
+            removedCount++;
+        }
+    }
+
+    // The startup load replaces the array wholesale, so merging is held off until it is done.
+    private void mergeIfNeeded() {
+        if (loading || delta.size() + removedCount < Math.max(MIN_MERGE_SIZE, names.size / 16)) {
+            return;
+        }
+        int deltaBytes = delta.keySet().stream().mapToInt(name -> name.length).sum();
+        names = Names.build(new MergingIterator(), names.bytes.length + deltaBytes, names.size - removedCount + delta.size());
+        delta.clear();
+        removed.clear();
+        removedCount = 0;
+    }
+
+    /** Live array entries and delta entries in index order. */
+    private final class MergingIterator implements Iterator<Map.Entry<byte[], Long>> {
+        private final Iterator<Map.Entry<byte[], Long>> recent = delta.entrySet().iterator();
+        private Map.Entry<byte[], Long> nextRecent = recent.hasNext() ? recent.next() : null;
+        private int position = removed.nextClearBit(0);
+
+        @Override
+        public boolean hasNext() {
+            return nextRecent != null || position < names.size;
+        }
+
+        @Override
+        public Map.Entry<byte[], Long> next() {
+            Map.Entry<byte[], Long> next;
+            if (nextRecent != null && (position >= names.size || names.compareTo(position, nextRecent.getKey()) > 0)) {
+                next = nextRecent;
+                nextRecent = recent.hasNext() ? recent.next() : null;
+            } else {
+                next = Map.entry(names.copyName(position), names.ids[position]);
+                position = removed.nextClearBit(position + 1);
+            }
+            return next;
+        }
+    }
+
+    private static byte[] encode(String userName) {
+        return userName.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String decode(byte[] name) {
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private static byte fold(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    private static int compare(byte[] a, byte[] b) {
+        return compare(a, 0, a.length, b, 0, b.length);
+    }
+
+    // Case-folded byte order, with raw byte order breaking ties between names differing only in case.
+    private static int compare(byte[] a, int aFrom, int aTo, byte[] b, int bFrom, int bTo) {
+        int length = Math.min(aTo - aFrom, bTo - bFrom);
+        for (int i = 0; i < length; i++) {
+            int diff = (fold(a[aFrom + i]) & 0xff) - (fold(b[bFrom + i]) & 0xff);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        if (aTo - aFrom != bTo - bFrom) {
+            return (aTo - aFrom) - (bTo - bFrom);
+        }
+        return Arrays.compareUnsigned(a, aFrom, aTo, b, bFrom, bTo);
+    }
+
+    private static boolean startsWith(byte[] name, int from, int to, byte[] foldedPrefix) {
+        if (to - from < foldedPrefix.length) {
+            return false;
+        }
+        for (int i = 0; i < foldedPrefix.length; i++) {
+            if (fold(name[from + i]) != foldedPrefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void write(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Immutable sorted names: name i is {@code bytes[offsets[i] .. offsets[i + 1])}, owned by {@code ids[i]}. */
+    private static final class Names {
+        private static final Names EMPTY = new Names(new byte[0], new int[1], new long[0]);
+
+        private final byte[] bytes;
+        private final int[] offsets;
+        private final long[] ids;
+        private final int size;
+
+        private Names(byte[] bytes, int[] offsets, long[] ids) {
+            this.bytes = bytes;
+            this.offsets = offsets;
+            this.ids = ids;
+            this.size = ids.length;
+        }
+
+        private static Names build(Iterator<Map.Entry<byte[], Long>> sorted, int maxBytes, int count) {
+            byte[] bytes = new byte[maxBytes];
+            int[] offsets = new int[count + 1];
+            long[] ids = new long[count];
+            int size = 0;
+            while (sorted.hasNext()) {
+                Map.Entry<byte[], Long> entry = sorted.next();
+                byte[] name = entry.getKey();
+                System.arraycopy(name, 0, bytes, offsets[size], name.length);
+                ids[size] = entry.getValue();
+                offsets[size + 1] = offsets[size] + name.length;
+                size++;
+            }
+            return new Names(Arrays.copyOf(bytes, offsets[size]), offsets, ids);
+        }
+
+        /** First position whose name is not below {@code key}. */
+        private int lowerBound(byte[] key) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (compareTo(middle, key) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int indexOf(byte[] name) {
+            int position = lowerBound(name);
+            return position < size && compareTo(position, name) == 0 ? position : -1;
+        }
+
+        private int compareTo(int position, byte[] key) {
+            return compare(bytes, offsets[position], offsets[position + 1], key, 0, key.length);
+        }
+
+        private boolean startsWith(int position, byte[] foldedPrefix) {
+            return UsernameIndex.startsWith(bytes, offsets[position], offsets[position + 1], foldedPrefix);
+        }
+
+        private String name(int position) {
+            return new String(bytes, offsets[position], offsets[position + 1] - offsets[position], StandardCharsets.UTF_8);
+        }
+
+        private byte[] copyName(int position) {
+            return Arrays.copyOfRange(bytes, offsets[position], offsets[position + 1]);
+        }
+    }
+}
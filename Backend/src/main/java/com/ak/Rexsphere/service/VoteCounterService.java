@@ -0,0 +1,267 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.enums.FeedType;
+import com.ak.Rexsphere.repository.AskRepository;
+import com.ak.Rexsphere.repository.RecRepository;
+import com.ak.Rexsphere.repository.projection.PostVoteCounts;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind vote counters. Vote toggles add deltas to striped in-memory counters, which
+ * are periodically flushed in one JDBC batch onto the upvote_count/downvote_count columns
+ * of rec and ask. Reads combine the persisted columns with the deltas not yet flushed.
+ */
+@Service
+public class VoteCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteCounterService.class);
+
+    private static final Map<FeedType, String> FLUSH_SQL = Map.of(
+            FeedType.REC, "UPDATE rec SET upvote_count = upvote_count + ?, downvote_count = downvote_count + ? WHERE id = ?",
+            FeedType.ASK, "UPDATE ask SET upvote_count = upvote_count + ?, downvote_count = downvote_count + ? WHERE id = ?");
+
+    /**
+     * Sets both counter columns of the posts with ids in (?, ?] from the vote table. Only rows
+     * whose stored counts differ are written, so a run that finds no drift updates nothing.
+     */
+    public static final Map<FeedType, String> RECONCILE_SQL = Map.of(
+            FeedType.REC, reconcileSql("rec", "rec_id"),
+            FeedType.ASK, reconcileSql("ask", "ask_id"));
+
+    private static final Map<FeedType, String> MAX_ID_SQL = Map.of(
+            FeedType.REC, "SELECT COALESCE(MAX(id), 0) FROM rec",
+            FeedType.ASK, "SELECT COALESCE(MAX(id), 0) FROM ask");
+
+    @Autowired
+    private RecRepository recRepository;
+
+    @Autowired
+    private AskRepository askRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${vote.counter.reconcile-batch-size:5000}")
+    private long reconcileBatchSize;
+
+    // Writers hold the read lock while adding, so swapping the map under the write lock
+    // guarantees no delta lands in a map that is already being flushed.
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Map<CounterKey, PendingVotes> pending = new ConcurrentHashMap<>();
+
+    // Flushes run JDBC while holding this. A monitor would pin a virtual thread to its carrier
+    // for the whole batch, so it is an explicit lock.
+    private final Lock flushLock = new ReentrantLock();
+
+    // Held for reading from the moment a vote change is recorded until its transaction has
+    // completed, and for writing by reconcile. A vote committed but not yet applied in memory
+    // would otherwise be counted by the recompute and then added once more as a delta.
+    private final ReadWriteLock reconcileLock = new ReentrantReadWriteLock();
+    private volatile Map<CounterKey, PendingVotes> flushing = Collections.emptyMap();
+
+    /**
+     * Records a vote change; must be called in the transaction that writes the vote, before it
+     * commits. Inside a transaction the delta is applied only after commit, so rolled-back votes
+     * never reach the counters. Blocks while a reconcile is running.
+     */
+    public void record(FeedType type, Long id, long upDelta, long downDelta) {
+        Lock inFlight = reconcileLock.readLock();
+        inFlight.lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                apply(type, id, upDelta, downDelta);
+            } finally {
+                inFlight.unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(type, id, upDelta, downDelta);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                inFlight.unlock();
+            }
+        });
+    }
+
+    /** Returns {upvotes, downvotes} for a post. */
+    public long[] getCounts(FeedType type, Long id) {
+        return getCounts(type, List.of(id)).getOrDefault(id, new long[2]);
+    }
+
+    /** Returns {upvotes, downvotes} keyed by post id; unknown ids are omitted. */
+    public Map<Long, long[]> getCounts(FeedType type, Collection<Long> ids) {
+        List<PostVoteCounts> persisted = type == FeedType.REC
+                ? recRepository.findVoteCountsByIdIn(ids)
+                : askRepository.findVoteCountsByIdIn(ids);
+
+        Map<Long, long[]> counts = new HashMap<>();
+        for (PostVoteCounts row : persisted) {
+            long[] votes = {row.getUpvoteCount(), row.getDownvoteCount()};
+            CounterKey key = new CounterKey(type, row.getId());
+            addPending(votes, pending.get(key));
+            addPending(votes, flushing.get(key));
+            counts.put(row.getId(), votes);
+        }
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${vote.counter.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Pending deltas would otherwise be lost on every restart. The web server has stopped taking
+    // requests by now, and the datasource this depends on is closed only after this has run.
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void flushPending() {
+        Map<CounterKey, PendingVotes> drained;
+        swapLock.writeLock().lock();
+        try {
+            drained = pending;
+            flushing = drained;
+            pending = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        if (drained.isEmpty()) {
+            flushing = Collections.emptyMap();
+            return;
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                for (FeedType type : FeedType.values()) {
+                    List<Object[]> batch = new ArrayList<>();
+                    drained.forEach((key, votes) -> {
+                        long up = votes.up.sum();
+                        long down = votes.down.sum();
+                        if (key.type() == type && (up != 0 || down != 0)) {
+                            batch.add(new Object[]{up, down, key.id()});
+                        }
+                    });
+                    if (!batch.isEmpty()) {
+                        jdbcTemplate.batchUpdate(FLUSH_SQL.get(type), batch);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("Vote counter flush failed, keeping {} pending entries for the next run", drained.size(), e);
+            drained.forEach((key, votes) -> apply(key.type(), key.id(), votes.up.sum(), votes.down.sum()));
+        } finally {
+            flushing = Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Recomputes the counter columns from the vote table to repair drift, e.g. deltas lost
+     * in a crash before they were flushed. Posts are recomputed in id ranges of
+     * {@code vote.counter.reconcile-batch-size}, each in its own short transaction, so votes are
+     * held back for one range at a time rather than for a scan of every post.
+     */
+    @Scheduled(cron = "${vote.counter.reconcile-cron:0 0 4 * * *}")
+    public void reconcile() {
+        int corrected = 0;
+        for (FeedType type : FeedType.values()) {
+            long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL.get(type), Long.class);
+            for (long from = 0; from < maxId; from += reconcileBatchSize) {
+                corrected += reconcileRange(type, from, Math.min(from + reconcileBatchSize, maxId));
+            }
+        }
+        if (corrected > 0) {
+            log.info("Reconcile corrected the vote counters of {} posts", corrected);
+        }
+    }
+
+    /**
+     * Waits for vote transactions in flight to complete and holds new ones back, so the
+     * recompute sees every vote whose delta is pending and none that is still to come. Pending
+     * deltas are flushed first; any in the range left over because the flush failed are already
+     * part of the recomputed values and are dropped.
+     */
+    private int reconcileRange(FeedType type, long from, long to) {
+        reconcileLock.writeLock().lock();
+        flushLock.lock();
+        try {
+            flushPending();
+            Integer updated = new TransactionTemplate(transactionManager).execute(status ->
+                    jdbcTemplate.update(RECONCILE_SQL.get(type), from, to));
+            pending.keySet().removeIf(key -> key.type() == type && key.id() > from && key.id() <= to);
+            return updated == null ? 0 : updated;
+        } finally {
+            flushLock.unlock();
+            reconcileLock.writeLock().unlock();
+        }
+    }
+
+    private static String reconcileSql(String table, String column) {
+        return "UPDATE " + table + " p SET upvote_count = c.up, downvote_count = c.down FROM (" +
+                "SELECT t.id, COUNT(v.id) FILTER (WHERE v.vote_type = 'UPVOTE') AS up, " +
+                "COUNT(v.id) FILTER (WHERE v.vote_type = 'DOWNVOTE') AS down " +
+                "FROM " + table + " t LEFT JOIN vote v ON v." + column + " = t.id " +
+                "WHERE t.id > ? AND t.id <= ? GROUP BY t.id) c " +
+                "WHERE p.id = c.id AND (p.upvote_count, p.downvote_count) IS DISTINCT FROM (c.up, c.down)";
+    }
+
+    private void apply(FeedType type, Long id, long upDelta, long downDelta) {
+        swapLock.readLock().lock();
+        try {
+            PendingVotes votes = pending.computeIfAbsent(new CounterKey(type, id), key -> new PendingVotes());
+            votes.up.add(upDelta);
+            votes.down.add(downDelta);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static void addPending(long[] votes, PendingVotes delta) {
+        if (delta != null) {
+            votes[0] += delta.up.sum();
+            votes[1] += delta.down.sum();
+        }
+    }
+
+    private record CounterKey(FeedType type, Long id) {
+    }
+
+    private static final class PendingVotes {
+        final LongAdder up = new LongAdder();
+        final LongAdder down = new LongAdder();
+    }
+}
@@ -1,23 +1,38 @@
 package com.ak.Rexsphere.service.impl;
 
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.PageCursor;
+import com.ak.Rexsphere.dto.AskResponse;
+import com.ak.Rexsphere.dto.SimilarAsk;
 import com.ak.Rexsphere.entity.Ask;
 import com.ak.Rexsphere.entity.Feed;
 import com.ak.Rexsphere.entity.User;
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.enums.FeedType;
 import com.ak.Rexsphere.repository.AskRepository;
 import com.ak.Rexsphere.repository.UserRepository;
 import com.ak.Rexsphere.service.AskService;
 import com.ak.Rexsphere.service.FeedService;
+import com.ak.Rexsphere.service.SearchIndex;
+import com.ak.Rexsphere.service.TrendingTracker;
+import com.ak.Rexsphere.service.SimilarAskIndex;
+import com.ak.Rexsphere.util.MinHash;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AskServiceImpl implements AskService {
 
+    private static final int MAX_SIMILAR = 20;
+
     @Autowired
     private AskRepository askRepository;
 
@@ -27,8 +42,17 @@ public class AskServiceImpl implements AskService {
     @Autowired
     private FeedService feedService;
 
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private TrendingTracker trendingTracker;
+
+    @Autowired
+    private SimilarAskIndex similarAskIndex;
+
     @Override
-    public Ask createAsk(Ask ask) {
+    public AskResponse createAsk(Ask ask) {
         Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -38,24 +62,34 @@ public class AskServiceImpl implements AskService {
 
         //save to feed
         feedService.savetoFeed(new Feed(ask));
+        searchIndex.addPost(FeedType.ASK, savedAsk.getId(), savedAsk.getCategory(), savedAsk.getQuestion());
+        trendingTracker.recordPost(FeedType.ASK, savedAsk.getId(), savedAsk.getCategory(), savedAsk.getQuestion());
+        similarAskIndex.add(savedAsk.getId(), savedAsk.getCategory(), MinHash.signature(savedAsk.getQuestion()));
 
-        return savedAsk;
+        return AskResponse.from(savedAsk);
     }
 
     @Override
-    public List<Ask> getAllAsks() {
-        return askRepository.findAll();
+    public CursorPage<AskResponse> getAllAsks(String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decodeOrStart(cursor);
+        List<AskResponse> rows = askRepository.findResponsePageBefore(after.getCreatedAt(), after.getId(), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, ask -> new PageCursor(ask.getCreatedAt(), ask.getId()));
     }
 
     @Override
-    public Ask getAskById(Long id) {
-        return askRepository.findById(id)
+    public AskResponse getAskById(Long id) {
+        return askRepository.findResponseById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ask not found"));
     }
 
     @Override
-    public List<Ask> getAsksByCategory(String category) {
-        return askRepository.findByCategory(category);
+    public CursorPage<AskResponse> getAsksByCategory(String category, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decodeOrStart(cursor);
+        List<AskResponse> rows = askRepository.findCategoryResponsePageBefore(Category.fromString(category),
+                after.getCreatedAt(), after.getId(), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, ask -> new PageCursor(ask.getCreatedAt(), ask.getId()));
     }
 
     @Override
@@ -64,5 +98,46 @@ public class AskServiceImpl implements AskService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Ask not found");
         }
         askRepository.deleteById(id);
+        searchIndex.removePost(FeedType.ASK, id);
+        similarAskIndex.remove(id);
+    }
+
+    @Override
+    public List<SimilarAsk> getSimilarAsks(Long id, int size) {
+        if (!askRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Ask not found");
+        }
+        return toSimilarAsks(similarAskIndex.similarToAsk(id, clampSimilar(size)));
+    }
+
+    @Override
+    public List<SimilarAsk> findSimilarAsks(String question, String category, int size) {
+        return toSimilarAsks(similarAskIndex.similarTo(MinHash.signature(question), parseCategory(category), clampSimilar(size)));
+    }
+
+    private static Category parseCategory(String category) {
+        try {
+            return Category.fromString(category);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid category: " + category);
+        }
+    }
+
+    private static int clampSimilar(int size) {
+        return Math.min(Math.max(size, 1), MAX_SIMILAR);
+    }
+
+    // Asks deleted since they were matched are left out.
+    private List<SimilarAsk> toSimilarAsks(List<SimilarAskIndex.Match> matches) {
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, AskResponse> asks = new HashMap<>();
+        askRepository.findResponsesByIdIn(matches.stream().map(SimilarAskIndex.Match::askId).toList())
+                .forEach(ask -> asks.put(ask.getId(), ask));
+        return matches.stream()
+                .filter(match -> asks.containsKey(match.askId()))
+                .map(match -> new SimilarAsk(asks.get(match.askId()), match.similarity()))
+                .toList();
     }
 }
\ No newline at end of file
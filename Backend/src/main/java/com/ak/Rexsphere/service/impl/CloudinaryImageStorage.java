@@ -0,0 +1,162 @@
+package com.ak.Rexsphere.service.impl;
+
+import com.ak.Rexsphere.config.SaturatedException;
+import com.ak.Rexsphere.service.ImageStorage;
+import com.ak.Rexsphere.util.CircuitBreaker;
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cloudinary calls run in their own bulkhead: a small pool with a bounded queue, so a slow
+ * Cloudinary can tie up at most those threads and never the request threads. Callers wait at
+ * most {@code cloudinary.timeout-seconds} per call, and get 503 with Retry-After when the bulkhead
+ * is full. Consecutive timeouts, I/O errors and 5xx responses open a circuit breaker, after which
+ * calls fail immediately with 503 and Retry-After until a trial call succeeds. A 4xx response is
+ * Cloudinary rejecting that one request and counts as an answer. The SDK's HTTP client has no
+ * read timeout of its own, so a call that timed out keeps its bulkhead thread until Cloudinary
+ * answers or drops it.
+ * {@code cloudinary.upload_prefix} points the SDK at another host, such as a local stub server.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.type", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryImageStorage implements ImageStorage {
+
+    private static final String UNAVAILABLE = "Image storage is temporarily unavailable, please retry shortly.";
+    // Makes the SDK return an error response, with its status, instead of throwing its message.
+    private static final String RETURN_ERROR = "return_error";
+
+    private final Cloudinary cloudinary;
+    private final String uploadFolder;
+    private final ThreadPoolExecutor bulkhead;
+    private final long timeoutMillis;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter rejected;
+
+    public CloudinaryImageStorage(
+            @Value("${cloudinary.cloud_name}") String cloudName,
+            @Value("${cloudinary.api_key}") String apiKey,
+            @Value("${cloudinary.api_secret}") String apiSecret,
+            @Value("${cloudinary.upload_folder}") String uploadFolder,
+            @Value("${cloudinary.upload_prefix:}") String uploadPrefix,
+            @Value("${cloudinary.bulkhead.threads:4}") int threads,
+            @Value("${cloudinary.bulkhead.queue-capacity:8}") int queueCapacity,
+            @Value("${cloudinary.timeout-seconds:10}") long timeoutSeconds,
+            @Value("${cloudinary.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${cloudinary.circuit.open-seconds:30}") long openSeconds,
+            MeterRegistry meterRegistry) {
+
+        if (cloudName == null || apiKey == null || apiSecret == null || uploadFolder == null) {
+            throw new IllegalArgumentException("Missing Cloudinary credentials in application.properties");
+        }
+
+        Map config = ObjectUtils.asMap(
+                "cloud_name", cloudName,
+                "api_key", apiKey,
+                "api_secret", apiSecret
+        );
+        if (!uploadPrefix.isBlank()) {
+            config.put("upload_prefix", uploadPrefix);
+        }
+        this.cloudinary = new Cloudinary(config);
+
+        this.uploadFolder = uploadFolder;
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(timeoutSeconds);
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, Duration.ofSeconds(openSeconds));
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.bulkhead = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "cloudinary-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, bulkhead, "cloudinary.bulkhead");
+        this.rejected = Counter.builder("cloudinary.calls.rejected").register(meterRegistry);
+        Gauge.builder("cloudinary.circuit.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkhead.shutdownNow();
+    }
+
+    // Given a File, the SDK streams the multipart body from disk instead of from a byte array.
+    @Override
+    public String store(Path source, String name, String contentType) throws IOException {
+        String publicId = name.substring(0, name.lastIndexOf('.'));
+        Map uploadResult = call("upload", () -> cloudinary.uploader().upload(source.toFile(),
+                ObjectUtils.asMap("folder", uploadFolder, "public_id", publicId, RETURN_ERROR, true)));
+        return uploadResult.get("url").toString();
+    }
+
+    @Override
+    public void delete(String imageUrl) throws IOException {
+        String filename = imageUrl.substring(imageUrl.lastIndexOf("/")+1, imageUrl.lastIndexOf("."));
+        String publicId = uploadFolder + "/" + filename;
+        call("destroy", () -> cloudinary.uploader().destroy(publicId, ObjectUtils.asMap(RETURN_ERROR, true)));
+    }
+
+    private Map call(String operation, Callable<Map> task) throws IOException {
+        if (!circuitBreaker.tryAcquire()) {
+            rejected.increment();
+            throw unavailable();
+        }
+        Future<Map> future;
+        try {
+            future = bulkhead.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            circuitBreaker.release();
+            throw unavailable();
+        }
+        try {
+            Map result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            if (result.get("error") instanceof Map error) {
+                int status = error.get("http_code") instanceof Number code ? code.intValue() : 0;
+                if (status >= 400 && status < 500) {
+                    circuitBreaker.onSuccess();
+                } else {
+                    circuitBreaker.onFailure();
+                }
+                throw new IOException("Cloudinary " + operation + " failed with status " + status + ": "
+                        + error.get("message"));
+            }
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            throw new IOException("Cloudinary " + operation + " timed out after " + timeoutMillis + " ms");
+        } catch (ExecutionException e) {
+            circuitBreaker.onFailure();
+            throw new IOException("Cloudinary " + operation + " failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            circuitBreaker.onFailure();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for Cloudinary " + operation);
+        }
+    }
+
+    private SaturatedException unavailable() {
+        long retryAfterSeconds = Math.max(1, (circuitBreaker.getRemainingOpenTime().toMillis() + 999) / 1000);
+        return new SaturatedException(UNAVAILABLE, retryAfterSeconds);
+    }
+}
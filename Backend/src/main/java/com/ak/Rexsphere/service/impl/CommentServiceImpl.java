@@ -1,16 +1,28 @@
 package com.ak.Rexsphere.service.impl;
 
+import com.ak.Rexsphere.dto.CommentResponse;
+import com.ak.Rexsphere.dto.CommentThread;
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.PageCursor;
 import com.ak.Rexsphere.entity.Comment;
 import com.ak.Rexsphere.entity.User;
+import com.ak.Rexsphere.enums.FeedType;
 import com.ak.Rexsphere.repository.CommentRepository;
 import com.ak.Rexsphere.repository.UserRepository;
+import com.ak.Rexsphere.repository.projection.CommentPreviewRow;
 import com.ak.Rexsphere.service.CommentService;
+import com.ak.Rexsphere.service.HotFeedRanker;
+import com.ak.Rexsphere.service.SearchIndex;
+import com.ak.Rexsphere.util.CommentPath;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 public class CommentServiceImpl implements CommentService {
@@ -21,53 +33,128 @@ public class CommentServiceImpl implements CommentService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private HotFeedRanker hotFeedRanker;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
     @Override
-    public Comment addComment(Comment comment) {
+    @Transactional
+    public CommentResponse addComment(Comment comment) {
         Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         comment.setUser(user);
+        comment.setReplyCount(0);
+        comment.setPath(null);
+
+        Comment parent = null;
+        if (comment.getParentId() != null) {
+            parent = commentRepository.findById(comment.getParentId())
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Parent comment not found."));
+            if (CommentPath.depth(parent.getPath()) + 1 >= CommentPath.MAX_DEPTH) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Replies cannot be nested any deeper.");
+            }
+            comment.setAskId(parent.getAskId());
+            comment.setRecId(parent.getRecId());
+        }
 
         if (comment.getAskId() == null && comment.getRecId() == null) {
             throw new IllegalArgumentException("Either askId or recId must be provided");
         }
 
-        return commentRepository.save(comment);
+        // The path ends with the comment's own id, so it is set once the insert has assigned one.
+        Comment savedComment = commentRepository.save(comment);
+        savedComment.setPath(CommentPath.of(parent == null ? null : parent.getPath(), savedComment.getId()));
+        if (parent != null) {
+            commentRepository.addReplies(parent.getId(), 1);
+        }
+        recordCommentChange(savedComment, 1);
+        searchIndex.addComment(savedComment.getId(), savedComment.getAskId(), savedComment.getRecId(), savedComment.getContent());
+        return CommentResponse.from(savedComment);
+    }
+
+    @Override
+    public CursorPage<CommentResponse> getAllComments(String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decodeOrStart(cursor);
+        List<CommentResponse> rows = commentRepository.findResponsePageBefore(after.getCreatedAt(), after.getId(), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, CommentServiceImpl::cursorOf);
+    }
+
+    @Override
+    public CursorPage<CommentResponse> getCommentsForAsk(Long askId, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        List<CommentResponse> rows = commentRepository.findAskThreadPageAfter(askId, CommentPath.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPage.keyedBy(rows, pageSize, CommentResponse::getPath);
+    }
+
+    @Override
+    public CursorPage<CommentResponse> getCommentsForRec(Long recId, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        List<CommentResponse> rows = commentRepository.findRecThreadPageAfter(recId, CommentPath.decodeCursor(cursor), Limit.of(pageSize + 1));
+        return CursorPage.keyedBy(rows, pageSize, CommentResponse::getPath);
     }
 
     @Override
-    public List<Comment> getAllComments() {
-        return commentRepository.findAll();
+    public CursorPage<CommentResponse> getReplies(Long commentId, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        String path = commentRepository.findById(commentId)
+                .map(Comment::getPath)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Comment not found."));
+        // A cursor from elsewhere in the thread must not widen the range beyond this subtree.
+        String after = CommentPath.decodeCursor(cursor);
+        if (after.compareTo(path) < 0) {
+            after = path;
+        }
+        List<CommentResponse> rows = commentRepository.findSubtreePageAfter(after, CommentPath.subtreeEnd(path), Limit.of(pageSize + 1));
+        return CursorPage.keyedBy(rows, pageSize, CommentResponse::getPath);
     }
 
     @Override
-    public List<Comment> getCommentsForAsk(Long askId) {
-        return commentRepository.findByAskId(askId);
+    public List<CommentThread> getAskThreadPreviews(List<Long> askIds, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        return toThreads(commentRepository.findAskThreadPreviews(distinctPostIds(askIds), pageSize));
     }
 
     @Override
-    public List<Comment> getCommentsForRec(Long recId) {
-        return commentRepository.findByRecId(recId);
+    public List<CommentThread> getRecThreadPreviews(List<Long> recIds, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        return toThreads(commentRepository.findRecThreadPreviews(distinctPostIds(recIds), pageSize));
     }
 
     @Override
-    public Comment updateComment(Long id, Comment updatedComment) {
+    @Transactional
+    public CommentResponse updateComment(Long id, Comment updatedComment) {
         Optional<Comment> comment = commentRepository.findById(id);
         if (comment.isPresent()) {
             Comment existingComment = comment.get();
 
             if (updatedComment.getContent() != null) existingComment.setContent(updatedComment.getContent());
 
-            return commentRepository.save(existingComment);
+            Comment savedComment = commentRepository.save(existingComment);
+            searchIndex.addComment(savedComment.getId(), savedComment.getAskId(), savedComment.getRecId(), savedComment.getContent());
+            return CommentResponse.from(savedComment);
         } else {
             return null;
         }
     }
 
     @Override
+    @Transactional
     public void deleteComment(Long id) {
-        commentRepository.deleteById(id);
+        commentRepository.findById(id).ifPresent(comment -> {
+            String end = CommentPath.subtreeEnd(comment.getPath());
+            List<Long> removedIds = commentRepository.findSubtreeIds(comment.getPath(), end);
+            int deleted = commentRepository.deleteSubtree(comment.getPath(), end);
+            searchIndex.removeComments(removedIds);
+            if (comment.getParentId() != null) {
+                commentRepository.addReplies(comment.getParentId(), -1);
+            }
+            recordCommentChange(comment, -deleted);
+        });
     }
 
     @Override
@@ -79,4 +166,45 @@ public class CommentServiceImpl implements CommentService {
     public Long getCommentCountForAsk(Long askId) {
         return commentRepository.countByAskId(askId);
     }
+
+    private static Long[] distinctPostIds(List<Long> ids) {
+        Long[] distinct = ids.stream().filter(Objects::nonNull).distinct().toArray(Long[]::new);
+        if (distinct.length > CursorPage.MAX_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + CursorPage.MAX_SIZE + " posts per request.");
+        }
+        return distinct;
+    }
+
+    private static List<CommentThread> toThreads(List<CommentPreviewRow> rows) {
+        Map<Long, List<CommentResponse>> comments = new LinkedHashMap<>();
+        Map<Long, Long> totals = new HashMap<>();
+        for (CommentPreviewRow row : rows) {
+            List<CommentResponse> thread = comments.computeIfAbsent(row.getPostId(), id -> new ArrayList<>());
+            totals.put(row.getPostId(), row.getTotal());
+            if (row.getId() != null) {
+                thread.add(new CommentResponse(row.getId(), row.getContent(), row.getAskId(), row.getRecId(),
+                        row.getParentId(), row.getReplyCount(), row.getCreatedAt(), row.getUserId(),
+                        row.getUserName(), row.getProfilePictureUrl(), row.getPath()));
+            }
+        }
+        List<CommentThread> threads = new ArrayList<>(comments.size());
+        comments.forEach((postId, thread) -> {
+            long total = totals.get(postId);
+            String nextCursor = total > thread.size() ? thread.get(thread.size() - 1).getPath() : null;
+            threads.add(new CommentThread(postId, total, thread, nextCursor));
+        });
+        return threads;
+    }
+
+    private static PageCursor cursorOf(CommentResponse comment) {
+        return new PageCursor(comment.getCreatedAt(), comment.getId());
+    }
+
+    private void recordCommentChange(Comment comment, long delta) {
+        if (comment.getAskId() != null) {
+            hotFeedRanker.recordComment(FeedType.ASK, comment.getAskId(), delta);
+        } else {
+            hotFeedRanker.recordComment(FeedType.REC, comment.getRecId(), delta);
+        }
+    }
 }
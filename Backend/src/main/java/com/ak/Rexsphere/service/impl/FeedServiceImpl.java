@@ -1,37 +1,237 @@
 package com.ak.Rexsphere.service.impl;
 
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.FeedItem;
+import com.ak.Rexsphere.dto.FeedResponse;
+import com.ak.Rexsphere.dto.PageCursor;
 import com.ak.Rexsphere.entity.Feed;
 import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.enums.FeedType;
+import com.ak.Rexsphere.enums.VoteType;
+import com.ak.Rexsphere.repository.CommentRepository;
 import com.ak.Rexsphere.repository.FeedRepository;
+import com.ak.Rexsphere.repository.UserRepository;
+import com.ak.Rexsphere.repository.VoteRepository;
+import com.ak.Rexsphere.repository.projection.CommentCount;
+import com.ak.Rexsphere.repository.projection.UserVote;
 import com.ak.Rexsphere.service.FeedService;
+import com.ak.Rexsphere.service.FeedStreamBroadcaster;
+import com.ak.Rexsphere.service.HotFeedRanker;
+import com.ak.Rexsphere.service.RecentFeedCache;
+import com.ak.Rexsphere.service.VoteCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.List;
+import java.util.*;
 
 @Service
 public class FeedServiceImpl implements FeedService {
 
+    private static final Comparator<Feed> NEWEST_FIRST = Comparator.comparing(Feed::getCreatedAt)
+            .thenComparing(Feed::getId)
+            .reversed();
+
     @Autowired
     private FeedRepository feedRepository;
 
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private VoteCounterService voteCounterService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecentFeedCache recentFeedCache;
+
+    @Autowired
+    private HotFeedRanker hotFeedRanker;
+
+    @Autowired
+    private FeedStreamBroadcaster feedStreamBroadcaster;
+
     @Override
     public Feed savetoFeed(Feed feed) {
-        return feedRepository.save(feed);
+        Feed saved = feedRepository.save(feed);
+        recentFeedCache.add(saved);
+        hotFeedRanker.add(saved);
+        feedStreamBroadcaster.publish(saved);
+        return saved;
+    }
+
+    @Override
+    public CursorPage<FeedResponse> getAllFeed(String cursor, int size) {
+        return toResponses(loadPage(null, cursor, size));
     }
 
     @Override
-    public List<Feed> getAllFeed() {
-        return feedRepository.findAll(Sort.by(Sort.Direction.DESC, "createdAt"));
+    public CursorPage<FeedResponse> getFeedByCategory(String category, String cursor, int size) {
+        return toResponses(loadPage(parseCategory(category), cursor, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<FeedResponse> getFeedForMe(String cursor, int size) {
+        Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
+        Set<Category> categories = Category.fromMask(userRepository.findPreferredCategoryMaskById(userId).orElse(0L));
+        if (categories.isEmpty()) {
+            return getAllFeed(cursor, size);
+        }
+
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decodeOrStart(cursor);
+        String[] categoryNames = categories.stream().map(Enum::name).toArray(String[]::new);
+
+        List<Feed> rows = feedRepository.findCategoryRunsBefore(categoryNames, after.getCreatedAt(), after.getId(), pageSize + 1);
+        return toResponses(CursorPage.of(mergeRuns(rows, pageSize + 1), pageSize, FeedServiceImpl::cursorOf));
+    }
+
+    @Override
+    public List<FeedResponse> getHotFeed(int size) {
+        return hotFeedRanker.top(CursorPage.clampSize(size)).stream().map(FeedResponse::from).toList();
+    }
+
+    @Override
+    public CursorPage<FeedItem> getHydratedFeed(String category, String cursor, int size) {
+        CursorPage<Feed> page = loadPage(category == null ? null : parseCategory(category), cursor, size);
+        Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
+
+        List<Long> recIds = new ArrayList<>();
+        List<Long> askIds = new ArrayList<>();
+        for (Feed feed : page.getItems()) {
+            (feed.getType() == FeedType.REC ? recIds : askIds).add(feed.getReferenceId());
+        }
+
+        Map<Long, long[]> recVotes = Collections.emptyMap();
+        Map<Long, long[]> askVotes = Collections.emptyMap();
+        Map<Long, Long> recComments = new HashMap<>();
+        Map<Long, Long> askComments = new HashMap<>();
+        Map<Long, VoteType> recUserVotes = new HashMap<>();
+        Map<Long, VoteType> askUserVotes = new HashMap<>();
+
+        if (!recIds.isEmpty()) {
+            recVotes = voteCounterService.getCounts(FeedType.REC, recIds);
+            collectComments(commentRepository.countByRecIds(recIds), recComments);
+            collectUserVotes(voteRepository.findUserVotesForRecs(userId, recIds), recUserVotes);
+        }
+        if (!askIds.isEmpty()) {
+            askVotes = voteCounterService.getCounts(FeedType.ASK, askIds);
+            collectComments(commentRepository.countByAskIds(askIds), askComments);
+            collectUserVotes(voteRepository.findUserVotesForAsks(userId, askIds), askUserVotes);
+        }
+
+        List<FeedItem> items = new ArrayList<>(page.getItems().size());
+        for (Feed feed : page.getItems()) {
+            boolean isRec = feed.getType() == FeedType.REC;
+            Long referenceId = feed.getReferenceId();
+            long[] votes = (isRec ? recVotes : askVotes).getOrDefault(referenceId, new long[2]);
+            long comments = (isRec ? recComments : askComments).getOrDefault(referenceId, 0L);
+            VoteType userVote = (isRec ? recUserVotes : askUserVotes).get(referenceId);
+            items.add(new FeedItem(FeedResponse.from(feed), votes[0], votes[1], comments, userVote));
+        }
+        return new CursorPage<>(items, page.getNextCursor());
     }
 
     @Override
-    public List<Feed> getFeedByCategory(String category) {
+    public SseEmitter streamFeed(String category) {
+        return feedStreamBroadcaster.subscribe(category == null ? null : parseCategory(category));
+    }
+
+    private CursorPage<Feed> loadPage(Category category, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decode(cursor);
+        List<Feed> cached = recentFeedCache.page(category, after, pageSize + 1);
+        if (cached != null) {
+            return CursorPage.of(cached, pageSize, FeedServiceImpl::cursorOf);
+        }
+
+        Limit limit = Limit.of(pageSize + 1);
+        List<Feed> rows;
+        if (category == null) {
+            rows = after == null
+                    ? feedRepository.findByOrderByCreatedAtDescIdDesc(limit)
+                    : feedRepository.findPageBefore(after.getCreatedAt(), after.getId(), limit);
+        } else {
+            rows = after == null
+                    ? feedRepository.findByCategoryOrderByCreatedAtDescIdDesc(category, limit)
+                    : feedRepository.findCategoryPageBefore(category, after.getCreatedAt(), after.getId(), limit);
+        }
+        return CursorPage.of(rows, pageSize, FeedServiceImpl::cursorOf);
+    }
+
+    /**
+     * K-way merge of the per-category runs into one newest-first list of at most {@code limit} items.
+     */
+    private static List<Feed> mergeRuns(List<Feed> rows, int limit) {
+        Map<Category, List<Feed>> runs = new EnumMap<>(Category.class);
+        for (Feed feed : rows) {
+            runs.computeIfAbsent(feed.getCategory(), category -> new ArrayList<>()).add(feed);
+        }
+
+        PriorityQueue<Run> heads = new PriorityQueue<>(runs.size(), (a, b) -> NEWEST_FIRST.compare(a.head(), b.head()));
+        for (List<Feed> run : runs.values()) {
+            run.sort(NEWEST_FIRST);
+            heads.add(new Run(run));
+        }
+
+        List<Feed> merged = new ArrayList<>(Math.min(limit, rows.size()));
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Run run = heads.poll();
+            merged.add(run.head());
+            if (++run.position < run.items.size()) {
+                heads.add(run);
+            }
+        }
+        return merged;
+    }
+
+    private static Category parseCategory(String category) {
         try {
-            return feedRepository.findByCategory(Category.valueOf(category.toUpperCase()));
+            return Category.valueOf(category.toUpperCase());
         } catch (IllegalArgumentException e) {
             throw new RuntimeException("Invalid category: " + category);
         }
     }
+
+    private static CursorPage<FeedResponse> toResponses(CursorPage<Feed> page) {
+        return new CursorPage<>(page.getItems().stream().map(FeedResponse::from).toList(), page.getNextCursor());
+    }
+
+    private static void collectComments(List<CommentCount> counts, Map<Long, Long> target) {
+        for (CommentCount count : counts) {
+            target.put(count.getReferenceId(), count.getCount());
+        }
+    }
+
+    private static void collectUserVotes(List<UserVote> votes, Map<Long, VoteType> target) {
+        for (UserVote vote : votes) {
+            target.put(vote.getReferenceId(), vote.getVoteType());
+        }
+    }
+
+    private static PageCursor cursorOf(Feed feed) {
+        return new PageCursor(feed.getCreatedAt(), feed.getId());
+    }
+
+    private static final class Run {
+        private final List<Feed> items;
+        private int position;
+
+        private Run(List<Feed> items) {
+            this.items = items;
+        }
+
+        private Feed head() {
+            return items.get(position);
+        }
+    }
 }
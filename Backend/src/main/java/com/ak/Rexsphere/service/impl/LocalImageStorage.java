@@ -0,0 +1,75 @@
+package com.ak.Rexsphere.service.impl;
+
+import com.ak.Rexsphere.service.ImageStorage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps images in a directory on local disk, served by {@code ImageController} under
+ * {@code storage.local.public-url}.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+public class LocalImageStorage implements ImageStorage {
+
+    // Names are generated server-side; anything else is refused, which also rules out path traversal.
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]+\\.(jpg|png)");
+
+    private final Path directory;
+    private final String publicUrl;
+
+    public LocalImageStorage(@Value("${storage.local.directory:uploads/images}") String directory,
+                             @Value("${storage.local.public-url:http://localhost:8080/public/images}") String publicUrl) throws IOException {
+        this.directory = Files.createDirectories(Path.of(directory)).toAbsolutePath();
+        this.publicUrl = publicUrl.endsWith("/") ? publicUrl : publicUrl + "/";
+    }
+
+    @Override
+    public String store(Path source, String name, String contentType) throws IOException {
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid image name: " + name);
+        }
+        Path target = directory.resolve(name);
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // The staging directory is on another file system; copy beside the target, then rename.
+            Path partial = Files.createTempFile(directory, name, ".partial");
+            try {
+                Files.copy(source, partial, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        }
+        return publicUrl + name;
+    }
+
+    @Override
+    public void delete(String url) throws IOException {
+        if (url.startsWith(publicUrl)) {
+            Optional<Path> path = resolve(url.substring(publicUrl.length()));
+            if (path.isPresent()) {
+                Files.deleteIfExists(path.get());
+            }
+        }
+    }
+
+    /** The stored file called {@code name}, if there is one. */
+    public Optional<Path> resolve(String name) {
+        if (!NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path path = directory.resolve(name);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+}
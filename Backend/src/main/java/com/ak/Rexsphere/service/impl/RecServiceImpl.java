@@ -1,13 +1,21 @@
 package com.ak.Rexsphere.service.impl;
 
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.PageCursor;
+import com.ak.Rexsphere.dto.RecResponse;
 import com.ak.Rexsphere.entity.*;
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.enums.FeedType;
 import com.ak.Rexsphere.repository.AskRepository;
 import com.ak.Rexsphere.repository.RecRepository;
 import com.ak.Rexsphere.repository.VoteRepository;
 import com.ak.Rexsphere.repository.UserRepository;
 import com.ak.Rexsphere.service.FeedService;
 import com.ak.Rexsphere.service.RecService;
+import com.ak.Rexsphere.service.SearchIndex;
+import com.ak.Rexsphere.service.TrendingTracker;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -33,8 +41,14 @@ public class RecServiceImpl implements RecService {
     @Autowired
     private FeedService feedService;
 
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private TrendingTracker trendingTracker;
+
     @Override
-    public Rec createRec(Rec rec) {
+    public RecResponse createRec(Rec rec) {
         Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -44,24 +58,33 @@ public class RecServiceImpl implements RecService {
 
         // save to feed
         feedService.savetoFeed(new Feed(rec));
+        searchIndex.addPost(FeedType.REC, savedRec.getId(), savedRec.getCategory(), savedRec.getContent());
+        trendingTracker.recordPost(FeedType.REC, savedRec.getId(), savedRec.getCategory(), savedRec.getContent());
 
-        return savedRec;
+        return RecResponse.from(savedRec);
     }
 
     @Override
-    public List<Rec> getAllRecs() {
-        return recRepository.findAll();
+    public CursorPage<RecResponse> getAllRecs(String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decodeOrStart(cursor);
+        List<RecResponse> rows = recRepository.findResponsePageBefore(after.getCreatedAt(), after.getId(), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, rec -> new PageCursor(rec.getCreatedAt(), rec.getId()));
     }
 
     @Override
-    public Rec getRecById(Long id) {
-        return recRepository.findById(id)
+    public RecResponse getRecById(Long id) {
+        return recRepository.findResponseById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Rec not found"));
     }
 
     @Override
-    public List<Rec> getRecsByCategory(String category) {
-        return recRepository.findByCategory(category);
+    public CursorPage<RecResponse> getRecsByCategory(String category, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decodeOrStart(cursor);
+        List<RecResponse> rows = recRepository.findCategoryResponsePageBefore(Category.fromString(category),
+                after.getCreatedAt(), after.getId(), Limit.of(pageSize + 1));
+        return CursorPage.of(rows, pageSize, rec -> new PageCursor(rec.getCreatedAt(), rec.getId()));
     }
 
     @Override
@@ -70,5 +93,6 @@ public class RecServiceImpl implements RecService {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Rec not found");
         }
         recRepository.deleteById(id);
+        searchIndex.removePost(FeedType.REC, id);
     }
 }
@@ -0,0 +1,116 @@
+package com.ak.Rexsphere.service.impl;
+
+import com.ak.Rexsphere.dto.*;
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.enums.SearchType;
+import com.ak.Rexsphere.repository.AskRepository;
+import com.ak.Rexsphere.repository.CommentRepository;
+import com.ak.Rexsphere.repository.RecRepository;
+import com.ak.Rexsphere.service.SearchIndex;
+import com.ak.Rexsphere.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class SearchServiceImpl implements SearchService {
+
+    // Ranked results are paged by offset, so deep pages are cut off rather than re-ranked.
+    private static final int MAX_RESULTS = 1000;
+
+    @Autowired
+    private SearchIndex searchIndex;
+
+    @Autowired
+    private AskRepository askRepository;
+
+    @Autowired
+    private RecRepository recRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Override
+    public CursorPage<SearchHit> search(String query, String type, String category, String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query must not be empty.");
+        }
+        int pageSize = CursorPage.clampSize(size);
+        int offset = decodeOffset(cursor);
+        int end = Math.min(offset + pageSize, MAX_RESULTS);
+
+        List<SearchIndex.Match> matches = searchIndex.search(query, parseType(type),
+                parseCategory(category), end + 1);
+        List<SearchIndex.Match> page = matches.subList(Math.min(offset, matches.size()), Math.min(end, matches.size()));
+        String nextCursor = matches.size() > end && end < MAX_RESULTS ? String.valueOf(end) : null;
+        return new CursorPage<>(hydrate(page), nextCursor);
+    }
+
+    // One IN query per result type; items deleted since they were ranked are left out.
+    private List<SearchHit> hydrate(List<SearchIndex.Match> matches) {
+        Map<SearchType, List<Long>> ids = new EnumMap<>(SearchType.class);
+        matches.forEach(match -> ids.computeIfAbsent(match.type(), t -> new ArrayList<>()).add(match.id()));
+
+        Map<SearchType, Map<Long, ?>> items = new EnumMap<>(SearchType.class);
+        ids.forEach((type, typeIds) -> items.put(type, switch (type) {
+            case ASK -> byId(askRepository.findResponsesByIdIn(typeIds), AskResponse::getId);
+            case REC -> byId(recRepository.findResponsesByIdIn(typeIds), RecResponse::getId);
+            case COMMENT -> byId(commentRepository.findResponsesByIdIn(typeIds), CommentResponse::getId);
+        }));
+
+        List<SearchHit> hits = new ArrayList<>(matches.size());
+        for (SearchIndex.Match match : matches) {
+            Object item = items.get(match.type()).get(match.id());
+            if (item != null) {
+                hits.add(new SearchHit(match.type(), match.id(), match.score(), item));
+            }
+        }
+        return hits;
+    }
+
+    private static <T> Map<Long, T> byId(List<T> rows, Function<T, Long> idOf) {
+        return rows.stream().collect(Collectors.toMap(idOf, Function.identity()));
+    }
+
+    private static SearchType parseType(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        try {
+            return SearchType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid search type: " + type);
+        }
+    }
+
+    private static Category parseCategory(String category) {
+        if (category == null || category.isBlank()) {
+            return null;
+        }
+        try {
+            return Category.fromString(category);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid category: " + category);
+        }
+    }
+
+    private static int decodeOffset(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(cursor);
+            if (offset >= 0 && offset < MAX_RESULTS) {
+                return offset;
+            }
+        } catch (NumberFormatException e) {
+            // falls through to the error below
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+    }
+}
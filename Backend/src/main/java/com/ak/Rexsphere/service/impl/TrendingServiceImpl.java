@@ -0,0 +1,32 @@
+package com.ak.Rexsphere.service.impl;
+
+import com.ak.Rexsphere.dto.TrendingResponse;
+import com.ak.Rexsphere.enums.TrendingWindow;
+import com.ak.Rexsphere.service.TrendingService;
+import com.ak.Rexsphere.service.TrendingTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Locale;
+
+@Service
+public class TrendingServiceImpl implements TrendingService {
+
+    private static final int MAX_TRENDING = 50;
+
+    @Autowired
+    private TrendingTracker trendingTracker;
+
+    @Override
+    public TrendingResponse getTrending(String window, int size) {
+        TrendingWindow trendingWindow;
+        try {
+            trendingWindow = TrendingWindow.valueOf(window.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid trending window: " + window);
+        }
+        return trendingTracker.getTrending(trendingWindow, Math.min(Math.max(size, 1), MAX_TRENDING));
+    }
+}
@@ -1,23 +1,36 @@
 package com.ak.Rexsphere.service.impl;
 
+import com.ak.Rexsphere.dto.AuthTokens;
+import com.ak.Rexsphere.dto.CursorPage;
+import com.ak.Rexsphere.dto.PageCursor;
+import com.ak.Rexsphere.dto.UserProfile;
+import com.ak.Rexsphere.dto.UserSummary;
 import com.ak.Rexsphere.enums.Category;
-import com.ak.Rexsphere.service.JWTService;
+import com.ak.Rexsphere.service.MyUserDetailsService;
+import com.ak.Rexsphere.service.RefreshTokenService;
+import com.ak.Rexsphere.service.UsernameIndex;
 import com.ak.Rexsphere.entity.User;
 import com.ak.Rexsphere.repository.UserRepository;
+import com.ak.Rexsphere.repository.projection.UserListing;
 import com.ak.Rexsphere.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.*;
 
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final int MAX_SUGGESTIONS = 20;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -25,15 +38,23 @@ public class UserServiceImpl implements UserService {
     private PasswordEncoder passwordEncoder;
 
     @Autowired
-    private JWTService jwtService;
+    private RefreshTokenService refreshTokenService;
 
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private MyUserDetailsService userDetailsService;
+
+    @Autowired
+    private UsernameIndex usernameIndex;
+
     @Override
-    public User createUser(User user) {
+    public UserProfile createUser(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        usernameIndex.add(savedUser.getId(), savedUser.getUserName());
+        return UserProfile.from(savedUser);
     }
 
     @Override
@@ -42,20 +63,70 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public User getUserByUserName(String userName) {
-        return userRepository.findByUserName(userName);
+    public UserProfile getUserProfile(Long id) {
+        return userRepository.findById(id)
+                .map(UserProfile::from)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    }
+
+    @Override
+    public UserSummary getUserByUserName(String userName) {
+        return userRepository.findSummaryByUserName(userName)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+    }
+
+    @Override
+    public List<UserSummary> suggestUsers(String prefix, int size) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        List<UsernameIndex.Completion> completions = usernameIndex.complete(prefix.strip(), Math.min(Math.max(size, 1), MAX_SUGGESTIONS));
+        if (completions.isEmpty()) {
+            return List.of();
+        }
+        // Profile pictures are not indexed; they come from one primary-key lookup, in completion order.
+        Map<Long, UserSummary> users = new HashMap<>();
+        userRepository.findSummariesByIdIn(completions.stream().map(UsernameIndex.Completion::id).toList())
+                .forEach(user -> users.put(user.getId(), user));
+        return completions.stream()
+                .map(completion -> users.get(completion.id()))
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     @Override
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public CursorPage<UserSummary> getAllUsers(String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decodeOrStart(cursor);
+        return toSummaries(CursorPage.of(
+                userRepository.findListingPageBefore(after.getCreatedAt(), after.getId(), Limit.of(pageSize + 1)),
+                pageSize, user -> new PageCursor(user.getCreatedAt(), user.getId())));
     }
 
     @Override
-    public User updateUser(Long id, User updatedUser) {
+    public CursorPage<UserSummary> getUsersByCategory(String category, String cursor, int size) {
+        int pageSize = CursorPage.clampSize(size);
+        PageCursor after = PageCursor.decodeOrStart(cursor);
+        return toSummaries(CursorPage.of(
+                userRepository.findListingPageInCategoriesBefore(parseCategory(category).bit(),
+                        after.getCreatedAt(), after.getId(), pageSize + 1),
+                pageSize, user -> new PageCursor(user.getCreatedAt(), user.getId())));
+    }
+
+    private static Category parseCategory(String category) {
+        try {
+            return Category.fromString(category);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid category: " + category);
+        }
+    }
+
+    @Override
+    public UserProfile updateUser(Long id, User updatedUser) {
         Optional<User> user = userRepository.findById(id);
         if (user.isPresent()) {
             User existingUser = user.get();
+            String previousUserName = existingUser.getUserName();
 
             if (updatedUser.getFirstName() != null) existingUser.setFirstName(updatedUser.getFirstName());
             if (updatedUser.getLastName() != null) existingUser.setLastName(updatedUser.getLastName());
@@ -68,7 +139,13 @@ public class UserServiceImpl implements UserService {
 
             if (updatedUser.getPreferredCategories() != null) existingUser.setPreferredCategories(updatedUser.getPreferredCategories());
 
-            return userRepository.save(existingUser);
+            UserProfile profile = UserProfile.from(userRepository.save(existingUser));
+            if (!previousUserName.equals(existingUser.getUserName())) {
+                userDetailsService.evict(previousUserName);
+                usernameIndex.remove(previousUserName);
+                usernameIndex.add(existingUser.getId(), existingUser.getUserName());
+            }
+            return profile;
         } else {
             return null;
         }
@@ -85,6 +162,8 @@ public class UserServiceImpl implements UserService {
                 if (updatedPassword != null && !updatedPassword.isBlank()){
                     existingUser.setPassword(passwordEncoder.encode(updatedPassword));
                     userRepository.save(existingUser);
+                    userDetailsService.evict(existingUser.getUserName());
+                    refreshTokenService.revokeAll(existingUser.getId());
                 }
             }
             else {
@@ -99,11 +178,16 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            userRepository.delete(user);
+            userDetailsService.evict(user.getUserName());
+            usernameIndex.remove(user.getUserName());
+            refreshTokenService.revokeAll(user.getId());
+        });
     }
 
     @Override
-    public String verify(User user) {
+    public AuthTokens verify(User user) {
         Authentication authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(user.getUserName(), user.getPassword()));
         if (authentication.isAuthenticated()) {
 
@@ -111,12 +195,12 @@ public class UserServiceImpl implements UserService {
 
             if (userFromDB != null) {
                 Long userId = userFromDB.getId();
-                return jwtService.generateToken(user.getUserName(), userId);
+                return refreshTokenService.issue(userId, userFromDB.getUserName());
             } else {
-                return "Customer not found.";
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Customer not found.");
             }
         }
-        return "Authentication Failed.";
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Authentication Failed.");
     }
 
     @Override
@@ -129,9 +213,14 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public List<Category> getPreferredCategories(Long userId) {
-        return userRepository.findById(userId)
-                .map(User::getPreferredCategories)
-                .orElse(Collections.emptyList());
+    public Set<Category> getPreferredCategories(Long userId) {
+        return Category.fromMask(userRepository.findPreferredCategoryMaskById(userId).orElse(0L));
+    }
+
+    private static CursorPage<UserSummary> toSummaries(CursorPage<UserListing> page) {
+        List<UserSummary> users = page.getItems().stream()
+                .map(user -> new UserSummary(user.getId(), user.getUserName(), user.getProfilePictureUrl()))
+                .toList();
+        return new CursorPage<>(users, page.getNextCursor());
     }
 }
@@ -1,114 +1,118 @@
 package com.ak.Rexsphere.service.impl;
 
-import com.ak.Rexsphere.entity.Ask;
-import com.ak.Rexsphere.entity.Rec;
-import com.ak.Rexsphere.entity.User;
-import com.ak.Rexsphere.entity.Vote;
+import com.ak.Rexsphere.enums.FeedType;
 import com.ak.Rexsphere.enums.VoteType;
-import com.ak.Rexsphere.repository.AskRepository;
-import com.ak.Rexsphere.repository.RecRepository;
-import com.ak.Rexsphere.repository.UserRepository;
 import com.ak.Rexsphere.repository.VoteRepository;
+import com.ak.Rexsphere.service.HotFeedRanker;
+import com.ak.Rexsphere.service.TrendingTracker;
+import com.ak.Rexsphere.service.VoteCounterService;
 import com.ak.Rexsphere.service.VoteService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.SQLException;
+
 @Service
 public class VoteServiceImpl implements VoteService {
 
+    private static final String FOREIGN_KEY_VIOLATION = "23503";
+
     @Autowired
     private VoteRepository voteRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private VoteCounterService voteCounterService;
 
     @Autowired
-    private RecRepository recRepository;
+    private HotFeedRanker hotFeedRanker;
 
     @Autowired
-    private AskRepository askRepository;
-
+    private TrendingTracker trendingTracker;
 
     @Override
     @Transactional
     public void voteRec(Long recId, boolean isUpvote) {
         Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
+        VoteType voteType = isUpvote ? VoteType.UPVOTE : VoteType.DOWNVOTE;
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found."));
-
-        Rec rec = recRepository.findById(recId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Rec not found."));
-
-        Vote existingVote = voteRepository.findByRecAndUser(rec, user);
-
-        if (existingVote != null) {
-            if ((isUpvote && existingVote.getVoteType() == VoteType.UPVOTE) ||
-                    (!isUpvote && existingVote.getVoteType() == VoteType.DOWNVOTE)) {
-                voteRepository.delete(existingVote);
-                return;
-            }
-            existingVote.setVoteType(isUpvote ? VoteType.UPVOTE : VoteType.DOWNVOTE);
-            voteRepository.save(existingVote);
-        } else {
-            Vote newVote = new Vote();
-            newVote.setRec(rec);
-            newVote.setUser(user);
-            newVote.setVoteType(isUpvote ? VoteType.UPVOTE : VoteType.DOWNVOTE);
-            voteRepository.save(newVote);
+        String change;
+        try {
+            change = voteRepository.toggleRecVote(userId, recId, voteType.name());
+        } catch (DataIntegrityViolationException e) {
+            throw postNotFound(e, "Rec not found.");
         }
+        recordChange(userId, FeedType.REC, recId, voteType, VoteChange.valueOf(change));
     }
 
     @Override
     @Transactional
     public void voteAsk(Long askId, boolean isUpvote) {
         Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getCredentials();
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found."));
-
-        Ask ask = askRepository.findById(askId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ask not found."));
-
-        Vote existingVote = voteRepository.findByAskAndUser(ask, user);
-
-        if (existingVote != null) {
-            if ((isUpvote && existingVote.getVoteType() == VoteType.UPVOTE) ||
-                    (!isUpvote && existingVote.getVoteType() == VoteType.DOWNVOTE)) {
-                voteRepository.delete(existingVote);
-                return;
-            }
-            existingVote.setVoteType(isUpvote ? VoteType.UPVOTE : VoteType.DOWNVOTE);
-            voteRepository.save(existingVote);
-        } else {
-            Vote newVote = new Vote();
-            newVote.setAsk(ask);
-            newVote.setUser(user);
-            newVote.setVoteType(isUpvote ? VoteType.UPVOTE : VoteType.DOWNVOTE);
-            voteRepository.save(newVote);
+        VoteType voteType = isUpvote ? VoteType.UPVOTE : VoteType.DOWNVOTE;
+
+        String change;
+        try {
+            change = voteRepository.toggleAskVote(userId, askId, voteType.name());
+        } catch (DataIntegrityViolationException e) {
+            throw postNotFound(e, "Ask not found.");
         }
+        recordChange(userId, FeedType.ASK, askId, voteType, VoteChange.valueOf(change));
     }
 
     @Override
     public long getUpVotesForRec(Long recId) {
-        return voteRepository.countByRecIdAndVoteType(recId, VoteType.UPVOTE);
+        return voteCounterService.getCounts(FeedType.REC, recId)[0];
     }
 
     @Override
     public long getDownVotesForRec(Long recId) {
-        return voteRepository.countByRecIdAndVoteType(recId, VoteType.DOWNVOTE);
+        return voteCounterService.getCounts(FeedType.REC, recId)[1];
     }
 
     @Override
     public long getUpVotesForAsk(Long askId) {
-        return voteRepository.countByAskIdAndVoteType(askId, VoteType.UPVOTE);
+        return voteCounterService.getCounts(FeedType.ASK, askId)[0];
     }
 
     @Override
     public long getDownVotesForAsk(Long askId) {
-        return voteRepository.countByAskIdAndVoteType(askId, VoteType.DOWNVOTE);
+        return voteCounterService.getCounts(FeedType.ASK, askId)[1];
+    }
+
+    // Only a vote referencing a missing post is the client's fault; any other integrity
+    // violation, such as a missing unique constraint, is rethrown as it is.
+    private static RuntimeException postNotFound(DataIntegrityViolationException e, String reason) {
+        if (e.getMostSpecificCause() instanceof SQLException cause && FOREIGN_KEY_VIOLATION.equals(cause.getSQLState())) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, reason);
+        }
+        return e;
+    }
+
+    private void recordChange(Long userId, FeedType type, Long id, VoteType voteType, VoteChange change) {
+        long delta = switch (change) {
+            case INSERTED, SWITCHED -> 1;
+            case REMOVED -> -1;
+            case UNCHANGED -> 0;
+        };
+        long oppositeDelta = change == VoteChange.SWITCHED ? -1 : 0;
+        long upDelta = voteType == VoteType.UPVOTE ? delta : oppositeDelta;
+        long downDelta = voteType == VoteType.UPVOTE ? oppositeDelta : delta;
+        voteCounterService.record(type, id, upDelta, downDelta);
+        hotFeedRanker.recordVote(type, id, upDelta - downDelta);
+        if (upDelta > 0) {
+            trendingTracker.recordUpvote(userId, type, id);
+        }
+    }
+
+    private enum VoteChange {
+        INSERTED,
+        SWITCHED,
+        REMOVED,
+        UNCHANGED
     }
 }
@@ -0,0 +1,50 @@
+package com.ak.Rexsphere.util;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.regex.Pattern;
+
+/**
+ * Materialized paths of threaded comments: the ids from the thread root down to the comment, each
+ * as 16 hex digits, joined by '.'. Because segments have a fixed width, byte order over paths is a
+ * depth-first walk of the thread with siblings oldest first, and a node's subtree is the range
+ * from its own path up to, but excluding, {@link #subtreeEnd}.
+ */
+public final class CommentPath {
+
+    public static final int MAX_DEPTH = 30;
+
+    private static final int SEGMENT_LENGTH = 16;
+    private static final Pattern VALID = Pattern.compile("[0-9a-f]{16}(\\.[0-9a-f]{16})*");
+
+    private CommentPath() {
+    }
+
+    /** Path of comment {@code id}, a root when {@code parentPath} is null. */
+    public static String of(String parentPath, long id) {
+        String segment = String.format("%016x", id);
+        return parentPath == null ? segment : parentPath + '.' + segment;
+    }
+
+    /** Zero for a top-level comment. */
+    public static int depth(String path) {
+        return (path.length() + 1) / (SEGMENT_LENGTH + 1) - 1;
+    }
+
+    // '/' is the byte right after the '.' separator, so it bounds every descendant path.
+    public static String subtreeEnd(String path) {
+        return path + '/';
+    }
+
+    /** Client-supplied position in a thread; null or blank means the start of the thread. */
+    public static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return "";
+        }
+        if (!VALID.matcher(cursor).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor: " + cursor);
+        }
+        return cursor;
+    }
+}
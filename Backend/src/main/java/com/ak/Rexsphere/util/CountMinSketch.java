@@ -0,0 +1,48 @@
+package com.ak.Rexsphere.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size frequency estimates for an unbounded set of items, keyed by 64-bit item hashes.
+ * Each of {@code depth} rows hashes the item to one of {@code width} counters; the estimate is
+ * the smallest of those counters, which never undercounts and overcounts by at most
+ * {@code e * total / width} except with probability {@code e^-depth}.
+ */
+public final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final int[] counters;
+
+    /** {@code width} must be a power of two. */
+    public CountMinSketch(int width, int depth) {
+        if (Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Width must be a power of two: " + width);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new int[width * depth];
+    }
+
+    public void add(long hash, int count) {
+        for (int row = 0; row < depth; row++) {
+            counters[index(hash, row)] += count;
+        }
+    }
+
+    public int estimate(long hash) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[index(hash, row)]);
+        }
+        return estimate;
+    }
+
+    public void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    private int index(long hash, int row) {
+        return row * width + (int) (MinHash.mix(hash + row * 0x9e3779b97f4a7c15L) & (width - 1));
+    }
+}
@@ -0,0 +1,57 @@
+package com.ak.Rexsphere.util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * MinHash signatures of short texts. The shingles of a text are its search terms (see
+ * {@link SearchAnalyzer}) and every pair of adjacent terms; for each of {@link #HASHES} seeded hash
+ * functions the signature keeps the smallest hash over those shingles. Two signatures agree at a
+ * position with probability equal to the Jaccard similarity of the texts' shingle sets.
+ */
+public final class MinHash {
+
+    public static final int HASHES = 32;
+
+    private static final long[] SEEDS = new SplittableRandom(0x5eed_ab1e_ca7L).longs(HASHES).toArray();
+
+    private MinHash() {
+    }
+
+    /** Null when the text has no terms, such as one made only of stop words. */
+    public static int[] signature(String text) {
+        List<String> terms = SearchAnalyzer.terms(text);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        long previous = 0;
+        for (int i = 0; i < terms.size(); i++) {
+            long term = mix(terms.get(i).hashCode());
+            accumulate(signature, term);
+            if (i > 0) {
+                accumulate(signature, mix(previous * 31 + term));
+            }
+            previous = term;
+        }
+        return signature;
+    }
+
+    private static void accumulate(int[] signature, long shingle) {
+        for (int i = 0; i < HASHES; i++) {
+            int hash = (int) (mix(shingle ^ SEEDS[i]) >>> 33);
+            if (hash < signature[i]) {
+                signature[i] = hash;
+            }
+        }
+    }
+
+    /** The splitmix64 finalizer. */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ak.Rexsphere.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Space-Saving heavy hitters: monitors at most {@code capacity} items. An unmonitored item takes
+ * over the slot of the smallest count and inherits that count, so counts may overestimate, but
+ * every item seen more than {@code total / capacity} times is guaranteed to be monitored.
+ */
+public final class SpaceSaving<T> {
+
+    private final int capacity;
+    private final Map<T, Long> counts;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counts = new HashMap<>(capacity * 2);
+    }
+
+    public void add(T item, long count) {
+        Long current = counts.get(item);
+        if (current != null || counts.size() < capacity) {
+            counts.put(item, (current == null ? 0 : current) + count);
+            return;
+        }
+        // Capacity is small, so a scan for the minimum is cheaper than keeping counts ordered.
+        Map.Entry<T, Long> smallest = null;
+        for (Map.Entry<T, Long> entry : counts.entrySet()) {
+            if (smallest == null || entry.getValue() < smallest.getValue()) {
+                smallest = entry;
+            }
+        }
+        long inherited = smallest.getValue();
+        counts.remove(smallest.getKey());
+        counts.put(item, inherited + count);
+    }
+
+    public Set<T> items() {
+        return counts.keySet();
+    }
+
+    public void clear() {
+        counts.clear();
+    }
+}
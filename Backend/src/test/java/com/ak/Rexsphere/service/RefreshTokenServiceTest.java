@@ -0,0 +1,103 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.dto.AuthTokens;
+import com.ak.Rexsphere.entity.RefreshSession;
+import com.ak.Rexsphere.entity.User;
+import com.ak.Rexsphere.repository.RefreshSessionRepository;
+import com.ak.Rexsphere.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/** Runs rotation against a single session row held in {@code session}; tokens are "generation:N". */
+class RefreshTokenServiceTest {
+
+    private static final String SESSION_ID = "session";
+    private static final Long USER_ID = 7L;
+
+    private RefreshSession session;
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        session = new RefreshSession(SESSION_ID, USER_ID, LocalDateTime.now().plusDays(14));
+
+        RefreshSessionRepository sessions = mock(RefreshSessionRepository.class);
+        when(sessions.advance(eq(SESSION_ID), anyInt(), any(), any())).thenAnswer(invocation -> {
+            int generation = invocation.getArgument(1);
+            if (session == null || session.getGeneration() != generation) {
+                return 0;
+            }
+            session.setGeneration(generation + 1);
+            session.setExpiresAt(invocation.getArgument(3));
+            session.setRotatedAt(invocation.getArgument(2));
+            return 1;
+        });
+        when(sessions.findById(SESSION_ID)).thenAnswer(invocation -> Optional.ofNullable(session));
+        doAnswer(invocation -> session = null).when(sessions).deleteById(SESSION_ID);
+
+        User user = new User();
+        user.setId(USER_ID);
+        user.setUserName("alice");
+        UserRepository users = mock(UserRepository.class);
+        when(users.findById(USER_ID)).thenReturn(Optional.of(user));
+
+        JWTService jwtService = mock(JWTService.class);
+        when(jwtService.parseRefreshToken(anyString())).thenAnswer(invocation -> new JWTService.RefreshClaims(
+                SESSION_ID, Integer.parseInt(invocation.<String>getArgument(0).substring("generation:".length())), USER_ID));
+        when(jwtService.generateRefreshToken(eq(USER_ID), eq(SESSION_ID), anyInt(), any()))
+                .thenAnswer(invocation -> "generation:" + invocation.getArgument(2));
+        when(jwtService.generateToken("alice", USER_ID)).thenReturn("access");
+
+        service = new RefreshTokenService(14, 10);
+        ReflectionTestUtils.setField(service, "refreshSessionRepository", sessions);
+        ReflectionTestUtils.setField(service, "userRepository", users);
+        ReflectionTestUtils.setField(service, "jwtService", jwtService);
+    }
+
+    @Test
+    void rotatesToTheNextGeneration() {
+        AuthTokens tokens = service.rotate("generation:0");
+        assertEquals("generation:1", tokens.getRefreshToken());
+        assertEquals("generation:2", service.rotate("generation:1").getRefreshToken());
+        assertEquals(2, session.getGeneration());
+    }
+
+    @Test
+    void concurrentRefreshWithTheSameTokenGetsTheCurrentToken() {
+        assertEquals("generation:1", service.rotate("generation:0").getRefreshToken());
+        // A second tab, or a page refreshing twice, sent the same cookie.
+        AuthTokens tokens = service.rotate("generation:0");
+        assertEquals("generation:1", tokens.getRefreshToken());
+        assertEquals("access", tokens.getAccessToken());
+        assertEquals(1, session.getGeneration());
+        assertEquals("generation:2", service.rotate("generation:1").getRefreshToken());
+    }
+
+    @Test
+    void previousTokenAfterTheGracePeriodRevokesTheSession() {
+        service.rotate("generation:0");
+        session.setRotatedAt(LocalDateTime.now().minusSeconds(11));
+
+        assertThrows(ResponseStatusException.class, () -> service.rotate("generation:0"));
+        assertNull(session);
+    }
+
+    @Test
+    void olderTokensRevokeTheSession() {
+        service.rotate("generation:0");
+        service.rotate("generation:1");
+
+        assertThrows(ResponseStatusException.class, () -> service.rotate("generation:0"));
+        assertNull(session);
+        assertThrows(ResponseStatusException.class, () -> service.rotate("generation:2"));
+    }
+}
@@ -0,0 +1,123 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.enums.FeedType;
+import com.ak.Rexsphere.enums.SearchType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchIndexTest {
+
+    private final SearchIndex index = new SearchIndex(new SimpleMeterRegistry());
+
+    @Test
+    void ranksByTermFrequencyAndRarity() {
+        index.addPost(FeedType.ASK, 1L, Category.TECHNOLOGY, "Which laptop for programming?");
+        index.addPost(FeedType.ASK, 2L, Category.TECHNOLOGY, "Laptop or desktop? A laptop is portable, a desktop is not");
+        index.addPost(FeedType.ASK, 3L, Category.TECHNOLOGY, "Best keyboard for a desktop setup");
+        index.addPost(FeedType.REC, 4L, Category.TECHNOLOGY, "A mechanical keyboard from a laptop maker");
+
+        // Two mentions beat one; then the shorter document wins.
+        assertEquals(List.of(2L, 1L, 4L), ids(index.search("laptop", null, null, 10)));
+        // "programming" is rarer than "laptop", so the document with both comes first.
+        assertEquals(1L, ids(index.search("laptop programming", null, null, 10)).get(0));
+        assertEquals(List.of(2L, 1L), ids(index.search("laptop", null, null, 2)));
+
+        List<SearchIndex.Match> matches = index.search("laptop", null, null, 10);
+        for (int i = 1; i < matches.size(); i++) {
+            assertTrue(matches.get(i - 1).score() >= matches.get(i).score());
+        }
+    }
+
+    @Test
+    void equalScoresPutTheNewerDocumentFirst() {
+        index.addPost(FeedType.ASK, 1L, Category.MUSIC, "guitar strings");
+        index.addPost(FeedType.ASK, 2L, Category.MUSIC, "guitar strings");
+        index.addPost(FeedType.ASK, 3L, Category.MUSIC, "guitar strings");
+
+        assertEquals(List.of(3L, 2L, 1L), ids(index.search("guitar", null, null, 10)));
+    }
+
+    @Test
+    void filtersByTypeAndByThePostsCategory() {
+        index.addPost(FeedType.ASK, 1L, Category.FOOD, "Where to find good ramen");
+        index.addPost(FeedType.REC, 1L, Category.TRAVEL, "Ramen shops near the station");
+        index.addComment(10L, 1L, null, "The ramen place downtown");
+        index.addComment(11L, null, 1L, "Try the ramen there");
+
+        assertEquals(4, index.search("ramen", null, null, 10).size());
+        assertEquals(List.of(SearchType.REC), types(index.search("ramen", SearchType.REC, null, 10)));
+        assertEquals(List.of(1L), ids(index.search("ramen", SearchType.ASK, null, 10)));
+        assertEquals(List.of(11L), ids(index.search("ramen", SearchType.COMMENT, Category.TRAVEL, 10)));
+        assertEquals(List.of(10L), ids(index.search("ramen", SearchType.COMMENT, Category.FOOD, 10)));
+        assertEquals(List.of(), index.search("ramen", null, Category.SPORTS, 10));
+    }
+
+    @Test
+    void prefixQueriesExpandToIndexedTerms() {
+        index.addPost(FeedType.ASK, 1L, Category.SCIENCE, "Astronomy for beginners");
+        index.addPost(FeedType.ASK, 2L, Category.SCIENCE, "Astrophysics reading list");
+        index.addPost(FeedType.ASK, 3L, Category.SCIENCE, "Gardening tips");
+
+        assertEquals(List.of(1L, 2L), sorted(ids(index.search("astro*", null, null, 10))));
+        assertEquals(List.of(), index.search("astro", null, null, 10));
+        // Single-letter prefixes are ignored.
+        assertEquals(List.of(), index.search("a*", null, null, 10));
+    }
+
+    @Test
+    void replacedAndRemovedDocumentsAreNotFound() {
+        index.addComment(1L, 1L, null, "old wording");
+        index.addComment(1L, 1L, null, "new wording");
+        index.addPost(FeedType.REC, 2L, Category.BOOKS, "wording matters");
+        index.removePost(FeedType.REC, 2L);
+
+        assertEquals(List.of(), index.search("old", null, null, 10));
+        assertEquals(List.of(1L), ids(index.search("wording", null, null, 10)));
+        assertEquals(List.of(), index.search("matters", null, null, 10));
+    }
+
+    @Test
+    void compactionKeepsRankingAndIds() {
+        for (long id = 1; id <= 2000; id++) {
+            String text = id % 2 == 0 ? "even post number " + id : "odd post number " + id;
+            index.addPost(FeedType.ASK, id, Category.HISTORY, id % 100 == 0 ? text + " centennial centennial" : text);
+        }
+        List<SearchIndex.Match> before = index.search("post centennial", null, null, 5);
+
+        // The 1024th tombstone, over a quarter of the documents, triggers compaction.
+        List<Long> removed = LongStream.rangeClosed(1, 2000).filter(id -> id % 100 != 0).limit(1024).boxed().toList();
+        removed.forEach(id -> index.removePost(FeedType.ASK, id));
+        assertEquals(0, (int) ReflectionTestUtils.getField(index, "deletedCount"), "tombstones compacted");
+        assertEquals(976, (int) ReflectionTestUtils.getField(index, "docCount"));
+
+        List<Long> centennials = LongStream.rangeClosed(1, 20).map(n -> n * 100).boxed().toList();
+        assertEquals(centennials, sorted(ids(index.search("centennial", null, null, 100))));
+        assertEquals(ids(before), ids(index.search("post centennial", null, null, 5)));
+        assertEquals(976, index.search("number", null, null, 1000).size());
+        assertEquals(List.of(), index.search(String.valueOf(removed.get(0)), null, null, 10));
+        assertEquals(List.of(2000L), ids(index.search("2000", null, null, 10)));
+
+        index.addPost(FeedType.ASK, 1L, Category.HISTORY, "odd post number 1 again");
+        assertEquals(List.of(1L), ids(index.search("again", null, null, 10)));
+        assertEquals(List.of(), index.search("centennial", null, Category.ART, 10));
+    }
+
+    private static List<Long> ids(List<SearchIndex.Match> matches) {
+        return matches.stream().map(SearchIndex.Match::id).toList();
+    }
+
+    private static List<SearchType> types(List<SearchIndex.Match> matches) {
+        return matches.stream().map(SearchIndex.Match::type).toList();
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+}
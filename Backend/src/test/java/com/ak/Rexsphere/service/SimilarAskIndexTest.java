@@ -0,0 +1,148 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.util.MinHash;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimilarAskIndexTest {
+
+    private static final String QUESTION =
+            "What is the best way to learn Java programming as a complete beginner with no computer science background";
+
+    private final SimilarAskIndex index = new SimilarAskIndex(0.5f, new SimpleMeterRegistry());
+
+    @Test
+    void signaturesAgreeInProportionToOverlap() {
+        int[] question = MinHash.signature(QUESTION);
+        assertArrayEquals(question, MinHash.signature(QUESTION.toUpperCase(Locale.ROOT) + "?"));
+        assertTrue(agreement(question, MinHash.signature(QUESTION + " today")) > 0.7);
+        assertTrue(agreement(question, MinHash.signature("Cheap flights from Lisbon to Porto in winter")) < 0.2);
+        assertNull(MinHash.signature("Is it the?"));
+    }
+
+    @Test
+    void findsNearDuplicatesInTheSameCategory() {
+        index.add(1L, Category.PROGRAMMING, MinHash.signature(QUESTION));
+        index.add(2L, Category.PROGRAMMING, MinHash.signature("Which laptop should I buy for gaming under 1000 dollars"));
+        index.add(3L, Category.PROGRAMMING, MinHash.signature(QUESTION.replace("complete", "total")));
+
+        List<SimilarAskIndex.Match> matches = index.similarTo(MinHash.signature(QUESTION + " today"), Category.PROGRAMMING, 10);
+        assertEquals(Set.of(1L, 3L), new HashSet<>(askIds(matches)));
+        assertTrue(matches.get(0).similarity() >= matches.get(1).similarity());
+        assertEquals(List.of(3L), askIds(index.similarToAsk(1L, 10)));
+        assertEquals(List.of(1L), askIds(index.similarTo(MinHash.signature(QUESTION), Category.PROGRAMMING, 1)));
+        assertEquals(List.of(), index.similarTo(MinHash.signature("Best hiking trails near Denver"), Category.PROGRAMMING, 10));
+    }
+
+    @Test
+    void ignoresAsksInOtherCategories() {
+        index.add(1L, Category.PROGRAMMING, MinHash.signature(QUESTION));
+        index.add(2L, Category.EDUCATION, MinHash.signature(QUESTION));
+
+        assertEquals(List.of(1L), askIds(index.similarTo(MinHash.signature(QUESTION), Category.PROGRAMMING, 10)));
+        assertEquals(List.of(2L), askIds(index.similarTo(MinHash.signature(QUESTION), Category.EDUCATION, 10)));
+        assertEquals(List.of(), index.similarTo(MinHash.signature(QUESTION), Category.TECHNOLOGY, 10));
+        assertEquals(List.of(), index.similarToAsk(1L, 10));
+    }
+
+    @Test
+    void compactionKeepsAskIds() {
+        Random random = new Random(7);
+        Map<Long, String> texts = new HashMap<>();
+        for (long id = 1; id <= 2000; id++) {
+            texts.put(id, randomQuestion(random));
+            index.add(id, Category.GAMING, MinHash.signature(texts.get(id)));
+        }
+        for (long k = 1; k <= 20; k++) {
+            index.add(3000 + k, Category.GAMING, MinHash.signature(texts.get(k) + " please"));
+        }
+
+        // The 1024th removal, over a quarter of the asks, triggers compaction.
+        for (long id = 21; id <= 1044; id++) {
+            index.remove(id);
+        }
+        assertEquals(0, (int) ReflectionTestUtils.getField(index, "deletedCount"), "tombstones compacted");
+        assertEquals(996, (int) ReflectionTestUtils.getField(index, "docCount"));
+
+        for (long k = 1; k <= 20; k++) {
+            assertEquals(List.of(k), askIds(index.similarToAsk(3000 + k, 10)));
+            assertEquals(Set.of(k, 3000 + k),
+                    new HashSet<>(askIds(index.similarTo(MinHash.signature(texts.get(k)), Category.GAMING, 10))));
+        }
+        for (long id = 21; id <= 1044; id++) {
+            assertEquals(List.of(), index.similarToAsk(id, 10));
+            assertEquals(List.of(), index.similarTo(MinHash.signature(texts.get(id)), Category.GAMING, 10));
+        }
+        for (long id = 1045; id <= 2000; id++) {
+            assertEquals(List.of(id), askIds(index.similarTo(MinHash.signature(texts.get(id)), Category.GAMING, 10)));
+        }
+
+        index.add(4000L, Category.GAMING, MinHash.signature(texts.get(1500L) + " again"));
+        assertEquals(List.of(1500L), askIds(index.similarToAsk(4000L, 10)));
+    }
+
+    @Test
+    void findsPairsJustAboveTheThreshold() {
+        Random random = new Random(11);
+        List<int[]> variants = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            int[] signature = random.ints(MinHash.HASHES).toArray();
+            index.add(id, Category.TRAVEL, signature);
+            variants.add(variant(signature, 17, random));
+        }
+
+        // 17 agreeing values of 32 is the least that scores 0.5; 8 bands of 4 rows found under half.
+        int found = 0;
+        for (int i = 0; i < variants.size(); i++) {
+            if (askIds(index.similarTo(variants.get(i), Category.TRAVEL, 10)).contains(i + 1L)) {
+                found++;
+            }
+        }
+        assertTrue(found >= 970, found + " of 1000 found");
+    }
+
+    // A copy of the signature that agrees at a random choice of the given number of positions.
+    private static int[] variant(int[] signature, int agreeing, Random random) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < MinHash.HASHES; i++) {
+            positions.add(i);
+        }
+        Collections.shuffle(positions, random);
+        int[] variant = signature.clone();
+        for (int position : positions.subList(agreeing, MinHash.HASHES)) {
+            variant[position]++;
+        }
+        return variant;
+    }
+
+    private static String randomQuestion(Random random) {
+        StringBuilder question = new StringBuilder();
+        for (int word = 0; word < 12; word++) {
+            for (int i = 0; i < 6; i++) {
+                question.append((char) ('a' + random.nextInt(26)));
+            }
+            question.append(' ');
+        }
+        return question.toString().trim();
+    }
+
+    private static double agreement(int[] a, int[] b) {
+        int agreeing = 0;
+        for (int i = 0; i < MinHash.HASHES; i++) {
+            if (a[i] == b[i]) {
+                agreeing++;
+            }
+        }
+        return (double) agreeing / MinHash.HASHES;
+    }
+
+    private static List<Long> askIds(List<SimilarAskIndex.Match> matches) {
+        return matches.stream().map(SimilarAskIndex.Match::askId).toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.dto.TrendingEntry;
+import com.ak.Rexsphere.enums.Category;
+import com.ak.Rexsphere.enums.FeedType;
+import com.ak.Rexsphere.enums.TrendingWindow;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingTrackerTest {
+
+    private final TrendingTracker tracker = new TrendingTracker();
+
+    @Test
+    void countsEachUsersUpvoteOfAPostOnce() {
+        tracker.recordPost(FeedType.ASK, 1L, Category.MUSIC, "Favourite #vinyl pressings?");
+        // Upvote, take it back, upvote again: the vote service reports two upvotes.
+        tracker.recordUpvote(10L, FeedType.ASK, 1L);
+        tracker.recordUpvote(10L, FeedType.ASK, 1L);
+        tracker.recordUpvote(11L, FeedType.ASK, 1L);
+
+        for (TrendingWindow window : TrendingWindow.values()) {
+            assertEquals(3, count(tracker.getTrending(window, 10).getCategories(), "MUSIC"));
+            assertEquals(3, count(tracker.getTrending(window, 10).getHashtags(), "vinyl"));
+        }
+    }
+
+    @Test
+    void countsTheSameUserOnDifferentPosts() {
+        tracker.recordPost(FeedType.ASK, 1L, Category.FOOD, "#ramen");
+        tracker.recordPost(FeedType.REC, 1L, Category.FOOD, "#ramen");
+        tracker.recordUpvote(10L, FeedType.ASK, 1L);
+        tracker.recordUpvote(10L, FeedType.REC, 1L);
+
+        assertEquals(4, count(tracker.getTrending(TrendingWindow.HOUR, 10).getHashtags(), "ramen"));
+    }
+
+    @Test
+    void comparesAgainstThePreviousWindow() {
+        tracker.recordPost(FeedType.ASK, 1L, Category.GAMING, "#chess openings");
+        tracker.recordUpvote(10L, FeedType.ASK, 1L);
+        tracker.recordUpvote(11L, FeedType.ASK, 1L);
+        ageByOneWindow(TrendingWindow.DAY);
+        tracker.recordPost(FeedType.ASK, 2L, Category.GAMING, "#chess endgames");
+
+        TrendingEntry chess = tracker.getTrending(TrendingWindow.DAY, 10).getHashtags().get(0);
+        assertEquals("chess", chess.getName());
+        assertEquals(1, chess.getCount());
+        assertEquals(3, chess.getPreviousCount());
+    }
+
+    // Moves every filled bucket of the window's ring back by the window's length.
+    private void ageByOneWindow(TrendingWindow window) {
+        Map<?, ?> rings = (Map<?, ?>) ReflectionTestUtils.getField(tracker, "rings");
+        Object[] ring = (Object[]) rings.get(window);
+        Object[] aged = new Object[ring.length];
+        List<Object> empty = new ArrayList<>();
+        for (Object bucket : ring) {
+            long epoch = (long) ReflectionTestUtils.getField(bucket, "epoch");
+            if (epoch == Long.MIN_VALUE) {
+                empty.add(bucket);
+                continue;
+            }
+            ReflectionTestUtils.setField(bucket, "epoch", epoch - window.getBuckets());
+            aged[(int) Math.floorMod(epoch - window.getBuckets(), (long) ring.length)] = bucket;
+        }
+        for (int i = 0; i < aged.length; i++) {
+            ring[i] = aged[i] != null ? aged[i] : empty.remove(0);
+        }
+    }
+
+    private static long count(List<TrendingEntry> entries, String name) {
+        return entries.stream().filter(entry -> entry.getName().equals(name)).mapToLong(TrendingEntry::getCount).sum();
+    }
+}
@@ -0,0 +1,200 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.repository.UserRepository;
+import com.ak.Rexsphere.repository.projection.UserNameEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UsernameIndexTest {
+
+    private final TreeMap<Long, String> users = new TreeMap<>();
+    private Consumer<UsernameIndex> duringLoad = index -> { };
+    private UsernameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findUserNamesAfter(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            Long after = invocation.getArgument(0);
+            Limit limit = invocation.getArgument(1);
+            List<UserNameEntry> batch = users.tailMap(after, false).entrySet().stream()
+                    .limit(limit.max())
+                    .map(entry -> entry(entry.getKey(), entry.getValue()))
+                    .toList();
+            duringLoad.accept(index);
+            return batch;
+        });
+        index = new UsernameIndex(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "userRepository", userRepository);
+    }
+
+    @Test
+    void completesAcrossLoadedNamesAndRecentAdditions() {
+        users.put(1L, "alice");
+        users.put(2L, "Albert");
+        users.put(3L, "bob");
+        index.rebuild();
+        index.add(4L, "alfred");
+        index.add(5L, "ALan");
+
+        assertEquals(List.of("ALan", "Albert", "alfred", "alice"), names(index.complete("al", 10)));
+        assertEquals(List.of("ALan", "Albert", "alfred", "alice"), names(index.complete("AL", 10)));
+        assertEquals(List.of("ALan", "Albert"), names(index.complete("al", 2)));
+        assertEquals(List.of("Albert"), names(index.complete("alb", 10)));
+        assertEquals(List.of(), names(index.complete("carol", 10)));
+        assertEquals(5, index.complete("", 10).size());
+    }
+
+    @Test
+    void namesDifferingOnlyInCaseAreBothFound() {
+        users.put(1L, "sam");
+        users.put(2L, "SAM");
+        index.rebuild();
+        index.add(3L, "Sam");
+
+        List<UsernameIndex.Completion> completions = index.complete("s", 10);
+        assertEquals(List.of("SAM", "Sam", "sam"), names(completions));
+        assertEquals(List.of(2L, 3L, 1L), completions.stream().map(UsernameIndex.Completion::id).toList());
+    }
+
+    @Test
+    void renameReplacesTheOldName() {
+        users.put(1L, "carol");
+        index.rebuild();
+
+        index.remove("carol");
+        index.add(1L, "caroline");
+        assertEquals(List.of("caroline"), names(index.complete("car", 10)));
+
+        index.remove("caroline");
+        index.add(1L, "carol");
+        assertEquals(List.of("carol"), names(index.complete("car", 10)));
+    }
+
+    @Test
+    void changesDuringTheStartupLoadSurviveIt() {
+        users.put(1L, "dave");
+        users.put(2L, "dora");
+        duringLoad = live -> {
+            duringLoad = ignored -> { };
+            // The load has already read both rows; these changes commit while it runs.
+            live.remove("dave");
+            live.add(3L, "dennis");
+            users.remove(1L);
+        };
+        index.rebuild();
+
+        assertEquals(List.of("dennis", "dora"), names(index.complete("d", 10)));
+    }
+
+    @Test
+    void mergingAtTheThresholdKeepsEveryName() {
+        for (long id = 1; id <= 1000; id++) {
+            users.put(id, "user" + id);
+        }
+        index.rebuild();
+
+        TreeMap<String, Long> expected = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        users.forEach((id, name) -> expected.put(name, id));
+        // Removals count towards the merge threshold as well as additions.
+        for (long id = 1; id <= 500; id++) {
+            index.remove("user" + id);
+            expected.remove("user" + id);
+        }
+        for (long id = 1001; id <= 4596; id++) {
+            assertFalse(deltaSize() == 0 && id > 1001, "merged before the threshold at " + id);
+            index.add(id, "User" + id);
+            expected.put("User" + id, id);
+        }
+        assertEquals(0, deltaSize(), "the 4096th change merges the delta into the array");
+
+        assertEquals(expected.size(), index.complete("user", Integer.MAX_VALUE).size());
+        Set<String> found = new HashSet<>(names(index.complete("USER", Integer.MAX_VALUE)));
+        assertEquals(expected.keySet(), found);
+        assertEquals(List.of("user1000", "User1001", "User1002"), names(index.complete("user100", 3)));
+        assertEquals(List.of(), names(index.complete("user1", Integer.MAX_VALUE)).stream().filter("user1"::equals).toList());
+    }
+
+    @Test
+    void matchesAReferenceModelUnderRandomChanges() {
+        Random random = new Random(42);
+        Set<String> unique = new HashSet<>();
+        for (long id = 1; id <= 2000; id++) {
+            String name = randomName(random);
+            if (unique.add(name)) {
+                users.put(id, name);
+            }
+        }
+        index.rebuild();
+        Map<String, Long> expected = new HashMap<>();
+        users.forEach((id, name) -> expected.put(name, id));
+
+        long nextId = 2001;
+        for (int step = 0; step < 20_000; step++) {
+            if (random.nextInt(3) == 0 && !expected.isEmpty()) {
+                String name = expected.keySet().iterator().next();
+                index.remove(name);
+                expected.remove(name);
+            } else {
+                String name = randomName(random);
+                if (!expected.containsKey(name)) {
+                    index.add(nextId, name);
+                    expected.put(name, nextId++);
+                }
+            }
+            if (step % 1000 == 0) {
+                String prefix = randomName(random).substring(0, 1 + random.nextInt(2));
+                List<String> want = expected.keySet().stream()
+                        .filter(name -> name.toLowerCase(Locale.ROOT).startsWith(prefix.toLowerCase(Locale.ROOT)))
+                        .toList();
+                List<String> got = names(index.complete(prefix, Integer.MAX_VALUE));
+                assertEquals(new HashSet<>(want), new HashSet<>(got), "prefix " + prefix);
+                assertEquals(want.size(), got.size());
+            }
+        }
+    }
+
+    private int deltaSize() {
+        return ((Map<?, ?>) ReflectionTestUtils.getField(index, "delta")).size();
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int length = 3 + random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            char letter = (char) ('a' + random.nextInt(4));
+            name.append(random.nextBoolean() ? Character.toUpperCase(letter) : letter);
+        }
+        return name.toString();
+    }
+
+    private static List<String> names(List<UsernameIndex.Completion> completions) {
+        return completions.stream().map(UsernameIndex.Completion::userName).toList();
+    }
+
+    private static UserNameEntry entry(Long id, String userName) {
+        return new UserNameEntry() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUserName() {
+                return userName;
+            }
+        };
+    }
+}
@@ -0,0 +1,200 @@
+package com.ak.Rexsphere.service;
+
+import com.ak.Rexsphere.enums.FeedType;
+import com.ak.Rexsphere.repository.AskRepository;
+import com.ak.Rexsphere.repository.RecRepository;
+import com.ak.Rexsphere.repository.projection.PostVoteCounts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the counters against a one-post model of the database: {@code votes} is the number of
+ * committed vote rows and {@code column} the persisted upvote_count of ask 1.
+ */
+class VoteCounterServiceTest {
+
+    private static final Long ASK_ID = 1L;
+
+    private final AtomicLong votes = new AtomicLong();
+    private final AtomicLong column = new AtomicLong();
+    private final AtomicReference<Runnable> duringRecompute = new AtomicReference<>(() -> { });
+
+    private VoteCounterService counters;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            List<Object[]> batch = invocation.getArgument(1);
+            batch.forEach(row -> column.addAndGet((Long) row[0]));
+            return new int[batch.size()];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COALESCE(MAX(id), 0) FROM ask"), eq(Long.class)))
+                .thenReturn(ASK_ID);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COALESCE(MAX(id), 0) FROM rec"), eq(Long.class)))
+                .thenReturn(0L);
+        doAnswer(invocation -> {
+            long from = invocation.getArgument(1);
+            long to = invocation.getArgument(2);
+            if (invocation.<String>getArgument(0).startsWith("UPDATE ask") && from < ASK_ID && ASK_ID <= to) {
+                boolean drifted = column.get() != votes.get();
+                column.set(votes.get());
+                duringRecompute.get().run();
+                return drifted ? 1 : 0;
+            }
+            return 0;
+        }).when(jdbcTemplate).update(anyString(), anyLong(), anyLong());
+
+        AskRepository askRepository = mock(AskRepository.class);
+        when(askRepository.findVoteCountsByIdIn(any())).thenAnswer(invocation -> List.of(new PostVoteCounts() {
+            @Override
+            public Long getId() {
+                return ASK_ID;
+            }
+
+            @Override
+            public long getUpvoteCount() {
+                return column.get();
+            }
+
+            @Override
+            public long getDownvoteCount() {
+                return 0;
+            }
+        }));
+
+        counters = new VoteCounterService();
+        ReflectionTestUtils.setField(counters, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(counters, "askRepository", askRepository);
+        ReflectionTestUtils.setField(counters, "recRepository", mock(RecRepository.class));
+        ReflectionTestUtils.setField(counters, "transactionManager", mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(counters, "reconcileBatchSize", 1000L);
+    }
+
+    @Test
+    void flushedDeltasReachTheColumn() {
+        counters.record(FeedType.ASK, ASK_ID, 1, 0);
+        votes.incrementAndGet();
+        assertEquals(1, upvotes());
+        counters.flush();
+        assertEquals(1, column.get());
+        assertEquals(1, upvotes());
+    }
+
+    @Test
+    void shutdownFlushesPendingDeltas() {
+        counters.record(FeedType.ASK, ASK_ID, 1, 0);
+        counters.record(FeedType.ASK, ASK_ID, 1, 0);
+        votes.addAndGet(2);
+
+        counters.shutdown();
+        assertEquals(2, column.get());
+        assertEquals(2, upvotes());
+    }
+
+    @Test
+    void voteCommittedBeforeItsDeltaIsAppliedIsNotCountedTwice() throws Exception {
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch applyDelta = new CountDownLatch(1);
+        Thread voter = new Thread(() -> inTransaction(() -> {
+            counters.record(FeedType.ASK, ASK_ID, 1, 0);
+            votes.incrementAndGet();
+            recorded.countDown();
+        }, applyDelta));
+        voter.start();
+        assertTrue(recorded.await(5, TimeUnit.SECONDS));
+
+        // The vote row is committed, its after-commit callback has not run yet.
+        Thread reconciler = new Thread(counters::reconcile);
+        reconciler.start();
+        reconciler.join(200);
+        assertTrue(reconciler.isAlive(), "reconcile must wait for the vote in flight");
+        assertEquals(0, column.get());
+
+        applyDelta.countDown();
+        voter.join(5000);
+        reconciler.join(5000);
+        assertFalse(reconciler.isAlive());
+
+        counters.flush();
+        assertEquals(1, column.get());
+        assertEquals(1, upvotes());
+    }
+
+    @Test
+    void voteStartedDuringReconcileWaitsAndIsCountedOnce() throws Exception {
+        AtomicReference<Thread> voter = new AtomicReference<>();
+        duringRecompute.set(() -> {
+            Thread thread = new Thread(() -> inTransaction(() -> {
+                counters.record(FeedType.ASK, ASK_ID, 1, 0);
+                votes.incrementAndGet();
+            }, new CountDownLatch(0)));
+            voter.set(thread);
+            thread.start();
+            try {
+                thread.join(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            assertTrue(thread.isAlive(), "a new vote must wait for reconcile");
+        });
+        votes.set(3);
+
+        counters.reconcile();
+        assertEquals(3, column.get());
+        voter.get().join(5000);
+        assertFalse(voter.get().isAlive());
+
+        assertEquals(4, upvotes());
+        counters.flush();
+        assertEquals(4, column.get());
+    }
+
+    @Test
+    void rolledBackVoteLeavesCountersAlone() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            counters.record(FeedType.ASK, ASK_ID, 1, 0);
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        counters.reconcile();
+        assertEquals(0, upvotes());
+    }
+
+    private long upvotes() {
+        return counters.getCounts(FeedType.ASK, ASK_ID)[0];
+    }
+
+    // Runs work as the body of a transaction, then commits once commit is released.
+    private static void inTransaction(Runnable work, CountDownLatch commit) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            work.run();
+            commit.await();
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.ak.Rexsphere.service.impl;
+
+import com.ak.Rexsphere.config.SaturatedException;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Runs the storage against a local HTTP server standing in for Cloudinary's upload API. */
+class CloudinaryImageStorageTest {
+
+    private static final String URL = "http://res.example.com/folder/abc_256.jpg";
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int status = 200;
+    private volatile long delayMillis;
+    private volatile CountDownLatch hold = new CountDownLatch(0);
+    private Path image;
+    private final List<CloudinaryImageStorage> storages = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            requests.incrementAndGet();
+            try {
+                hold.await();
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String body = status == 200
+                    ? "{\"url\":\"" + URL + "\",\"result\":\"ok\"}"
+                    : "{\"error\":{\"message\":\"stub error\"}}";
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        server.start();
+        image = Files.createTempFile("upload", ".jpg");
+        Files.write(image, new byte[]{1, 2, 3});
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        hold.countDown();
+        storages.forEach(CloudinaryImageStorage::shutdown);
+        server.stop(0);
+        serverThreads.shutdownNow();
+        Files.deleteIfExists(image);
+    }
+
+    @Test
+    void storesAndDeletes() throws IOException {
+        CloudinaryImageStorage storage = storage(2, 2, 5, 3, 30);
+
+        assertEquals(URL, storage.store(image, "abc_256.jpg", "image/jpeg"));
+        storage.delete(URL);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void timesOutASlowCall() {
+        CloudinaryImageStorage storage = storage(2, 2, 1, 3, 30);
+        delayMillis = 3000;
+
+        long started = System.nanoTime();
+        IOException e = assertThrows(IOException.class, () -> storage.store(image, "abc_256.jpg", "image/jpeg"));
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        assertTrue(e.getMessage().contains("timed out"), e.getMessage());
+        assertTrue(elapsedMillis >= 1000 && elapsedMillis < 2500, "returned after " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void rejectsCallsWhenTheBulkheadIsFull() throws Exception {
+        CloudinaryImageStorage storage = storage(1, 1, 10, 3, 30);
+        hold = new CountDownLatch(1);
+
+        // One call occupies the only thread and a second waits in the queue.
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            calls.add(callers.submit(() -> {
+                storage.delete(URL);
+                return null;
+            }));
+        }
+        ThreadPoolExecutor bulkhead = (ThreadPoolExecutor) ReflectionTestUtils.getField(storage, "bulkhead");
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((requests.get() < 1 || bulkhead.getQueue().size() < 1) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        SaturatedException e = assertThrows(SaturatedException.class, () -> storage.delete(URL));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertNotNull(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        hold.countDown();
+        for (Future<?> call : calls) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+        callers.shutdown();
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void opensTheCircuitAfterServerErrors() throws IOException {
+        CloudinaryImageStorage storage = storage(2, 2, 5, 2, 30);
+        status = 500;
+
+        for (int i = 0; i < 2; i++) {
+            IOException e = assertThrows(IOException.class, () -> storage.delete(URL));
+            assertTrue(e.getMessage().contains("500"), e.getMessage());
+        }
+        status = 200;
+        SaturatedException e = assertThrows(SaturatedException.class,
+                () -> storage.store(image, "abc_256.jpg", "image/jpeg"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        long retryAfter = Long.parseLong(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertTrue(retryAfter > 0 && retryAfter <= 30, "Retry-After " + retryAfter);
+        assertEquals(2, requests.get(), "an open circuit does not call Cloudinary");
+    }
+
+    @Test
+    void clientErrorsDoNotOpenTheCircuit() throws IOException {
+        CloudinaryImageStorage storage = storage(2, 2, 5, 2, 30);
+        status = 400;
+
+        for (int i = 0; i < 4; i++) {
+            IOException e = assertThrows(IOException.class, () -> storage.store(image, "abc_256.jpg", "image/jpeg"));
+            assertTrue(e.getMessage().contains("400"), e.getMessage());
+        }
+        status = 200;
+        assertEquals(URL, storage.store(image, "abc_256.jpg", "image/jpeg"));
+        assertEquals(5, requests.get());
+    }
+
+    @Test
+    void recoversThroughAHalfOpenTrial() throws Exception {
+        CloudinaryImageStorage storage = storage(2, 2, 5, 2, 1);
+        status = 502;
+        for (int i = 0; i < 2; i++) {
+            assertThrows(IOException.class, () -> storage.delete(URL));
+        }
+        assertThrows(SaturatedException.class, () -> storage.delete(URL));
+
+        // A failed trial opens the circuit again.
+        Thread.sleep(1100);
+        assertThrows(IOException.class, () -> storage.delete(URL));
+        assertThrows(SaturatedException.class, () -> storage.delete(URL));
+        assertEquals(3, requests.get());
+
+        // A successful one closes it.
+        Thread.sleep(1100);
+        status = 200;
+        storage.delete(URL);
+        assertEquals(URL, storage.store(image, "abc_256.jpg", "image/jpeg"));
+        assertEquals(5, requests.get());
+    }
+
+    private CloudinaryImageStorage storage(int threads, int queueCapacity, long timeoutSeconds,
+                                           int failureThreshold, long openSeconds) {
+        CloudinaryImageStorage storage = new CloudinaryImageStorage("cloud", "key", "secret", "folder",
+                "http://127.0.0.1:" + server.getAddress().getPort(), threads, queueCapacity, timeoutSeconds,
+                failureThreshold, openSeconds, new SimpleMeterRegistry());
+        storages.add(storage);
+        return storage;
+    }
+}
@@ -1,18 +1,41 @@
-import React, { createContext, useState, useEffect, useContext } from "react";
+import React, { createContext, useState, useEffect, useContext, useRef } from "react";
 import { jwtDecode } from "jwt-decode";
+import backendUrl from "./BackendUrlConfig";
 
 export const AuthContext = createContext();
 
+// Refresh this long before the access token expires.
+const REFRESH_MARGIN_MS = 2 * 60 * 1000;
+
+// One refresh call at a time per page. StrictMode runs effects twice in development, and two
+// calls with the same cookie would race to rotate it.
+let refreshInFlight = null;
+
+function requestRefresh() {
+  if (!refreshInFlight) {
+    refreshInFlight = backendUrl
+      .post("/public/refresh")
+      .then((response) => response.data)
+      .finally(() => {
+        refreshInFlight = null;
+      });
+  }
+  return refreshInFlight;
+}
+
 export const AuthProvider = ({ children }) => {
   const storedToken = sessionStorage.getItem("token");
   const initialToken = storedToken && !isTokenExpired(storedToken) ? storedToken : null;
 
   const [token, setToken] = useState(initialToken);
   const [isAuthenticated, setIsAuthenticated] = useState(!!initialToken);
+  // Set by logout until the next login, so clearing the token does not trigger a refresh.
+  const loggedOut = useRef(false);
 
   useEffect(() => {
+    if (loggedOut.current) return;
     if (!token || isTokenExpired(token)) {
-      logout();
+      refresh();
     } else {
       setIsAuthenticated(true);
     }
@@ -21,22 +44,33 @@ export const AuthProvider = ({ children }) => {
   useEffect(() => {
     if (!isAuthenticated) return;
     const interval = setInterval(() => {
-      if (token && isTokenExpired(token)) {
-        logout();
+      if (token && isTokenExpired(token, REFRESH_MARGIN_MS)) {
+        refresh();
       }
     }, 60 * 1000); // Check every minute
     return () => clearInterval(interval);
   }, [isAuthenticated, token]);
 
-  function isTokenExpired(token) {
+  function isTokenExpired(token, marginMs = 0) {
     try {
       const { exp } = jwtDecode(token);
-      return exp * 1000 < Date.now();
+      return exp * 1000 - marginMs < Date.now();
     } catch {
       return true;
     }
   }
 
+  // Trades the refresh-token cookie for a new access token; no password needed.
+  async function refresh() {
+    try {
+      const newToken = await requestRefresh();
+      // A refresh that was already on its way when the user logged out is ignored.
+      if (!loggedOut.current) login(newToken);
+    } catch {
+      clearSession();
+    }
+  }
+
   function getUserIdFromToken() {
     try {
       return token ? jwtDecode(token).userId || null : null;
@@ -47,12 +81,23 @@ export const AuthProvider = ({ children }) => {
 
   function login(newToken) {
     if (!newToken || isTokenExpired(newToken)) return;
+    loggedOut.current = false;
     setToken(newToken);
     sessionStorage.setItem("token", newToken);
     setIsAuthenticated(true);
   }
 
-  function logout() {
+  async function logout() {
+    loggedOut.current = true;
+    clearSession();
+    try {
+      await backendUrl.post("/public/logout");
+    } catch {
+      // This page stays logged out; the server session expires on its own.
+    }
+  }
+
+  function clearSession() {
     setToken(null);
     sessionStorage.removeItem("token");
     setIsAuthenticated(false);
@@ -2,6 +2,7 @@ import axios from 'axios';
 
 const backendUrl = axios.create({
     baseURL: 'http://localhost:8080',
+    withCredentials: true, // sends the HttpOnly refresh-token cookie to /public/refresh
 })
 
 export default backendUrl;
\ No newline at end of file
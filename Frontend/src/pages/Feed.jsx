@@ -9,6 +9,7 @@ import {
   Plus, 
   Edit2, 
   Trash2, 
+  Reply,
   ArrowBigUp, 
   ArrowBigDown 
 } from "lucide-react";
@@ -42,18 +43,27 @@ const Feed = () => {
   const fetchFeed = async () => {
     setIsLoading(true);
     try {
-      const response = await backendUrl.get("/feed", {
+      const response = await backendUrl.get("/feed/hydrated", {
         headers: { Authorization: `Bearer ${token}` },
       });
 
-      const items = response.data;
+      const items = response.data.items;
       setFeedItems(items);
 
-      // Fetch comment and vote counts for each item
+      // Counts and the user's own vote arrive with each item
+      const votes = {};
+      const ownVotes = {};
+      const comments = {};
       items.forEach(item => {
-        fetchCommentCount(item);
-        fetchVoteCounts(item);
+        const compositeKey = `${item.type}-${item.referenceId}`;
+        votes[compositeKey] = { upvotes: item.upvotes, downvotes: item.downvotes };
+        ownVotes[compositeKey] = item.userVote ? item.userVote === "UPVOTE" : null;
+        comments[compositeKey] = { count: item.commentCount, comments: [], expanded: false };
       });
+      setVoteData(votes);
+      setUserVotes(ownVotes);
+      setCommentData(comments);
+      fetchCommentPreviews(items);
     } catch (error) {
       console.error("Error fetching feed:", error);
     } finally {
@@ -61,6 +71,38 @@ const Feed = () => {
     }
   };
 
+  // Fetch the first comments of every post on the page, one request per post type
+  const fetchCommentPreviews = async (items) => {
+    for (const type of ["ASK", "REC"]) {
+      const ids = items.filter(item => item.type === type).map(item => item.referenceId);
+      if (ids.length === 0) continue;
+
+      try {
+        const response = await backendUrl.get(`/comment/${type.toLowerCase()}/preview`, {
+          params: { ids: ids.join(",") },
+          headers: { Authorization: `Bearer ${token}` },
+        });
+
+        setCommentData(prevData => {
+          const updated = { ...prevData };
+          response.data.forEach(thread => {
+            const compositeKey = `${type}-${thread.postId}`;
+            updated[compositeKey] = {
+              ...updated[compositeKey],
+              comments: thread.comments,
+              count: thread.total,
+              nextCursor: thread.nextCursor,
+              loaded: true
+            };
+          });
+          return updated;
+        });
+      } catch (error) {
+        console.error(`Error fetching ${type} comment previews:`, error);
+      }
+    }
+  };
+
   // Fetch vote counts for an item
   const fetchVoteCounts = async (item) => {
     const compositeKey = `${item.type}-${item.referenceId}`;
@@ -132,44 +174,6 @@ const Feed = () => {
     }
   };
 
-  // Fetch comment count for a single item
-  const fetchCommentCount = async (item) => {
-    const compositeKey = `${item.type}-${item.referenceId}`;
-    const url = `/comment/${item.type.toLowerCase()}/${item.referenceId}/count`;
-
-    try {
-      const response = await backendUrl.get(url, {
-        headers: { Authorization: `Bearer ${token}` },
-      });
-
-      const count = response.data.count;
-
-      // Update comment data for this item
-      setCommentData(prevData => ({
-        ...prevData,
-        [compositeKey]: {
-          ...prevData[compositeKey],
-          count: count,
-          comments: prevData[compositeKey]?.comments || [],
-          expanded: prevData[compositeKey]?.expanded || false
-        }
-      }));
-    } catch (error) {
-      console.error(`Error fetching comment count for ${compositeKey}:`, error);
-
-      // Update state with 0 count on error
-      setCommentData(prevData => ({
-        ...prevData,
-        [compositeKey]: {
-          ...prevData[compositeKey],
-          count: 0,
-          comments: prevData[compositeKey]?.comments || [],
-          expanded: prevData[compositeKey]?.expanded || false
-        }
-      }));
-    }
-  };
-
   // Toggle comments section and fetch comments if needed
   const toggleComments = async (referenceId, type) => {
     const compositeKey = `${type}-${referenceId}`;
@@ -185,16 +189,15 @@ const Feed = () => {
 
     // Check if we need to fetch comments
     const currentData = commentData[compositeKey];
-    const needToFetchComments = !currentData?.expanded &&
-      (!currentData?.comments || currentData.comments.length === 0);
+    const needToFetchComments = !currentData?.expanded && !currentData?.loaded;
 
     if (needToFetchComments) {
       fetchComments(referenceId, type);
     }
   };
 
-  // Fetch comments for an item
-  const fetchComments = async (referenceId, type) => {
+  // Fetch a page of comments for an item; a cursor appends the next page to those already shown
+  const fetchComments = async (referenceId, type, cursor = null) => {
     if (!type) {
       console.error("Error: 'type' is undefined in fetchComments");
       return;
@@ -206,11 +209,12 @@ const Feed = () => {
     try {
       const url = `/comment/${lowerType}/${referenceId}`;
       const response = await backendUrl.get(url, {
+        params: cursor ? { cursor } : {},
         headers: { Authorization: `Bearer ${token}` },
       });
 
       // Filter comments to ensure they match the correct type and referenceId
-      const filteredComments = response.data.filter(comment => {
+      const filteredComments = response.data.items.filter(comment => {
         return lowerType === "ask"
           ? comment.askId == referenceId
           : comment.recId == referenceId;
@@ -221,7 +225,11 @@ const Feed = () => {
         ...prevData,
         [compositeKey]: {
           ...prevData[compositeKey],
-          comments: filteredComments
+          comments: cursor
+            ? [...(prevData[compositeKey]?.comments || []), ...filteredComments]
+            : filteredComments,
+          nextCursor: response.data.nextCursor,
+          loaded: true
         }
       }));
     } catch (error) {
@@ -237,9 +245,15 @@ const Feed = () => {
     const lowerType = type.toLowerCase();
 
     try {
-      // Prepare the payload based on type
+      // Prepare the payload based on type; a reply only needs its parent
+      const replyTo = commentData[compositeKey]?.replyTo;
       let payload;
-      if (lowerType === "ask") {
+      if (replyTo) {
+        payload = {
+          content: newCommentText,
+          parentId: replyTo.id
+        };
+      } else if (lowerType === "ask") {
         payload = {
           content: newCommentText,
           askId: referenceId
@@ -273,9 +287,10 @@ const Feed = () => {
             ...prevData,
             [compositeKey]: {
               ...prevData[compositeKey],
-              comments: [...currentComments, newComment],
+              comments: insertInThread(currentComments, newComment),
               count: currentCount + 1,
-              newComment: ""
+              newComment: "",
+              replyTo: null
             }
           };
         });
@@ -285,6 +300,28 @@ const Feed = () => {
     }
   };
 
+  // Place a new comment where the thread order puts it: a reply goes after its parent's
+  // existing replies, a top-level comment at the end
+  const insertInThread = (comments, newComment) => {
+    if (!newComment.parentId) return [...comments, newComment];
+
+    const parentIndex = comments.findIndex(comment => comment.id === newComment.parentId);
+    if (parentIndex === -1) return [...comments, newComment];
+
+    const parent = comments[parentIndex];
+    let position = parentIndex + 1;
+    while (position < comments.length && comments[position].depth > parent.depth) {
+      position++;
+    }
+    return [
+      ...comments.slice(0, parentIndex),
+      { ...parent, replyCount: parent.replyCount + 1 },
+      ...comments.slice(parentIndex + 1, position),
+      newComment,
+      ...comments.slice(position)
+    ];
+  };
+
   // Update an existing comment
   const handleUpdateComment = async (referenceId, type, commentId, content) => {
     if (!content.trim()) return;
@@ -380,6 +417,17 @@ const Feed = () => {
     }));
   };
 
+  // Choose the comment the next submission replies to, or null for a top-level comment
+  const setReplyTo = (compositeKey, comment) => {
+    setCommentData(prevData => ({
+      ...prevData,
+      [compositeKey]: {
+        ...prevData[compositeKey],
+        replyTo: comment ? { id: comment.id, userName: comment.user.userName } : null
+      }
+    }));
+  };
+
   // Update a comment being edited
   const updateEditingComment = (compositeKey, content) => {
     setCommentData(prevData => ({
@@ -603,6 +651,7 @@ const Feed = () => {
                               <div
                                 key={comment.id}
                                 className="p-3 bg-[var(--color-background)] rounded-xl flex items-start gap-3"
+                                style={{ marginLeft: `${Math.min(comment.depth || 0, 6) * 1.5}rem` }}
                               >
                                 {itemCommentData.editingComment?.id === comment.id ? (
                                   <div className="flex-1 flex items-center gap-2">
@@ -641,22 +690,31 @@ const Feed = () => {
                                       <span className="text-xs text-[var(--color-text-secondary)] opacity-70">
                                         - {comment.user.userName}
                                       </span>
-                                      {comment.user.id === getUserIdFromToken() && (
-                                        <div className="flex gap-2">
-                                          <button
-                                            onClick={() => setEditingComment(compositeKey, comment.id, comment.content)}
-                                            className="text-blue-500 hover:bg-blue-50 p-1 rounded-full"
-                                          >
-                                            <Edit2 size={16} />
-                                          </button>
-                                          <button
-                                            onClick={() => handleDelete(comment.id, item.referenceId, item.type)}
-                                            className="text-red-500 hover:bg-red-50 p-1 rounded-full"
-                                          >
-                                            <Trash2 size={16} />
-                                          </button>
-                                        </div>
-                                      )}
+                                      <div className="flex gap-2">
+                                        <button
+                                          onClick={() => setReplyTo(compositeKey, comment)}
+                                          className="flex items-center gap-1 text-xs text-[var(--color-primary)] hover:bg-blue-50 p-1 rounded-full"
+                                        >
+                                          <Reply size={16} />
+                                          {comment.replyCount > 0 && comment.replyCount}
+                                        </button>
+                                        {comment.user.id === getUserIdFromToken() && (
+                                          <>
+                                            <button
+                                              onClick={() => setEditingComment(compositeKey, comment.id, comment.content)}
+                                              className="text-blue-500 hover:bg-blue-50 p-1 rounded-full"
+                                            >
+                                              <Edit2 size={16} />
+                                            </button>
+                                            <button
+                                              onClick={() => handleDelete(comment.id, item.referenceId, item.type)}
+                                              className="text-red-500 hover:bg-red-50 p-1 rounded-full"
+                                            >
+                                              <Trash2 size={16} />
+                                            </button>
+                                          </>
+                                        )}
+                                      </div>
                                     </div>
                                   </div>
                                 )}
@@ -667,7 +725,27 @@ const Feed = () => {
                           <p className="text-center text-[var(--color-text-secondary)] py-4">No comments yet.</p>
                         )}
 
+                        {itemCommentData.nextCursor && (
+                          <button
+                            onClick={() => fetchComments(item.referenceId, item.type, itemCommentData.nextCursor)}
+                            className="mt-3 w-full text-sm text-[var(--color-primary)] hover:underline"
+                          >
+                            Load more comments
+                          </button>
+                        )}
+
                         {/* New comment form */}
+                        {itemCommentData.replyTo && (
+                          <div className="mt-4 flex items-center justify-between text-xs text-[var(--color-text-secondary)]">
+                            <span>Replying to {itemCommentData.replyTo.userName}</span>
+                            <button
+                              onClick={() => setReplyTo(compositeKey, null)}
+                              className="hover:underline"
+                            >
+                              Cancel
+                            </button>
+                          </div>
+                        )}
                         <div className="mt-4 flex items-center gap-3">
                           <input
                             type="text"
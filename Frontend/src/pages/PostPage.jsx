@@ -1,4 +1,4 @@
-import React, { useState } from "react";
+import React, { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import backendUrl from "../BackendUrlConfig";
 import { useAuth } from "../AuthContext";
@@ -13,6 +13,7 @@ const PostPage = () => {
     const [error, setError] = useState(null);
     const [isSubmitting, setIsSubmitting] = useState(false);
     const [showSuccess, setShowSuccess] = useState(false);
+    const [similarAsks, setSimilarAsks] = useState([]);
 
     const categories = [
         "TECHNOLOGY", "SPORTS", "MUSIC", "EDUCATION", "HEALTH",
@@ -21,6 +22,27 @@ const PostPage = () => {
         "ENTERTAINMENT", "PROGRAMMING", "LIFESTYLE", "OTHER"
     ];
 
+    // Suggest already-asked questions while an ask is being typed, once typing pauses.
+    useEffect(() => {
+        if (type !== "ask" || !category || content.trim().length < 10 || !token) {
+            setSimilarAsks([]);
+            return;
+        }
+        const timer = setTimeout(async () => {
+            try {
+                const response = await backendUrl.get("/ask/similar", {
+                    params: { question: content, category, size: 3 },
+                    headers: { Authorization: `Bearer ${token}` },
+                });
+                setSimilarAsks(response.data);
+            } catch (err) {
+                console.error("Error fetching similar asks:", err);
+                setSimilarAsks([]);
+            }
+        }, 400);
+        return () => clearTimeout(timer);
+    }, [type, category, content, token]);
+
     const handleSubmit = async (e) => {
         e.preventDefault();
         if (!token) {
@@ -191,6 +213,17 @@ const PostPage = () => {
                             </div>
                         </div>
 
+                        {similarAsks.length > 0 && (
+                            <div className="p-3 bg-yellow-900/20 border border-yellow-800/50 rounded-lg text-sm">
+                                <p className="text-yellow-400 mb-2">Similar questions have already been asked:</p>
+                                <ul className="space-y-1 text-[var(--color-text-secondary)]">
+                                    {similarAsks.map(({ ask }) => (
+                                        <li key={ask.id}>• {ask.question}</li>
+                                    ))}
+                                </ul>
+                            </div>
+                        )}
+
                         {/* Submit Button */}
                         <button
                             type="submit"